@@ -5,6 +5,7 @@ import models.DeliveryPartner;
 import enums.OrderStatus;
 import enums.PartnerStatus;
 import repository.InMemoryRepository;
+import java.util.Map;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
 import java.time.LocalDateTime;
@@ -22,7 +23,8 @@ public class OrderService {
     
     // Background threads
     private final ExecutorService assignmentExecutor;
-    private final ScheduledExecutorService autoCancelExecutor;
+    private final ScheduledThreadPoolExecutor autoCancelExecutor;
+    private final Map<Long, ScheduledFuture<?>> autoCancelTasks = new ConcurrentHashMap<>();
     
     public OrderService(service.PartnerService partnerService) {
         this.orderRepo = new InMemoryRepository<>();
@@ -30,8 +32,11 @@ public class OrderService {
         this.orderIdCounter = new AtomicLong(1000);
         this.pendingOrders = new LinkedBlockingQueue<>();
         this.assignmentExecutor = Executors.newSingleThreadExecutor();
-        this.autoCancelExecutor = Executors.newScheduledThreadPool(1);
+        this.autoCancelExecutor = new ScheduledThreadPoolExecutor(1);
+        // Cancelled timeouts leave the delay queue immediately instead of waiting out 30 minutes
+        this.autoCancelExecutor.setRemoveOnCancelPolicy(true);
         
+        partnerService.setOrderSettledListener(this::cancelAutoCancel);
         startAutoAssignment();
     }
     
@@ -87,6 +92,7 @@ public class OrderService {
         
         // Remove from queue
         pendingOrders.remove(orderId);
+        cancelAutoCancel(orderId);
         
         System.out.println("✓ Order cancelled: " + orderId);
         return true;
@@ -144,7 +150,8 @@ public class OrderService {
     
     // Auto-cancel after 30 minutes
     private void scheduleAutoCancel(long orderId) {
-        autoCancelExecutor.schedule(() -> {
+        ScheduledFuture<?> task = autoCancelExecutor.schedule(() -> {
+            autoCancelTasks.remove(orderId);
             synchronized (this) {
                 Order order = orderRepo.findById(orderId);
                 if (order != null && 
@@ -160,6 +167,15 @@ public class OrderService {
                 }
             }
         }, 30, TimeUnit.MINUTES);
+        autoCancelTasks.put(orderId, task);
+    }
+
+    // Called once an order is picked up, delivered or cancelled
+    void cancelAutoCancel(long orderId) {
+        ScheduledFuture<?> task = autoCancelTasks.remove(orderId);
+        if (task != null) {
+            task.cancel(false);
+        }
     }
     
     public void shutdown() {
@@ -8,6 +8,7 @@ import repository.InMemoryRepository;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.List;
 import java.util.Comparator;
+import java.util.function.LongConsumer;
 import java.util.stream.Collectors;
 import java.time.LocalDateTime;
 
@@ -18,6 +19,9 @@ public class PartnerService {
     private final InMemoryRepository<Order> orderRepo;
     private final AtomicLong partnerIdCounter;
     
+    // Told when an order is picked up or delivered, so its auto-cancel timer can go
+    private volatile LongConsumer orderSettledListener = orderId -> { };
+    
     public PartnerService(InMemoryRepository<Order> orderRepo) {
         this.partnerRepo = new InMemoryRepository<>();
         this.orderRepo = orderRepo;
@@ -67,6 +71,7 @@ public class PartnerService {
         order.setStatus(OrderStatus.PICKED_UP);
         order.setPickedUpAt(LocalDateTime.now());
         orderRepo.save(orderId, order);
+        orderSettledListener.accept(orderId);
         
         System.out.println("✓ Order picked up: " + orderId + " by Partner: " + partnerId);
         return true;
@@ -90,6 +95,7 @@ public class PartnerService {
         order.setStatus(OrderStatus.DELIVERED);
         order.setDeliveredAt(LocalDateTime.now());
         orderRepo.save(orderId, order);
+        orderSettledListener.accept(orderId);
         
         // Update partner
         partner.setStatus(PartnerStatus.AVAILABLE);
@@ -147,6 +153,10 @@ public class PartnerService {
         System.out.println("═══════════════════════════════════════\n");
     }
     
+    void setOrderSettledListener(LongConsumer listener) {
+        this.orderSettledListener = listener;
+    }
+    
     // Internal method for OrderService to access partner repo
     InMemoryRepository<DeliveryPartner> getPartnerRepository() {
         return partnerRepo;
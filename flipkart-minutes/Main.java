@@ -1,6 +1,28 @@
 import src.repository.*;
 import src.service.*;
 import src.models.*;
+import src.persistence.*;
+import src.codec.CustomerRecordCodec;
+import src.codec.OrderRecordCodec;
+import src.codec.PartnerRecordCodec;
+import src.enums.ExecutionMode;
+import src.enums.LifecycleEventType;
+import src.enums.OrderPriority;
+import src.events.LifecycleEventBus;
+import src.metrics.MetricsFileExporter;
+import src.metrics.MetricsRegistry;
+import src.notification.NotificationDispatcher;
+import src.notification.OverflowPolicy;
+import src.util.EntityLockManager;
+import src.util.ExecutionThreads;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class Main {
     public static void main(String[] args) throws Exception {
@@ -8,19 +30,68 @@ public class Main {
         PartnerRepository partnerRepo = new PartnerRepository();
         OrderRepository orderRepo = new OrderRepository();
 
-        NotificationService notificationService = new NotificationService();
+        // Opt-in durability: -Dflipkart.data.dir=data/store replays snapshot + WAL on startup
+        String dataDir = System.getProperty("flipkart.data.dir");
+        DurableStore<Customer> customerStore = null;
+        DurableStore<DeliveryPartner> partnerStore = null;
+        DurableStore<Order> orderStore = null;
+        OrderArchive orderArchive = null;
+        if (dataDir != null) {
+            Path root = Paths.get(dataDir);
+            PersistenceConfig config = PersistenceConfig.defaults();
+            customerStore = new DurableStore<>(root.resolve("customers"), new CustomerRecordCodec(), config);
+            partnerStore = new DurableStore<>(root.resolve("partners"), new PartnerRecordCodec(), config);
+            orderStore = new DurableStore<>(root.resolve("orders"), new OrderRecordCodec(), config);
+            customerRepo.enablePersistence(customerStore);
+            partnerRepo.enablePersistence(partnerStore);
+            orderRepo.enablePersistence(orderStore);
+            orderArchive = new OrderArchive(root.resolve("archive"));
+            orderRepo.enableArchive(orderArchive);
+        }
+
+        // -Dflipkart.threads=virtual runs assignment workers and notification delivery on virtual threads (Java 21)
+        ExecutionMode executionMode = ExecutionThreads.effective(ExecutionThreads.fromSystemProperty());
+        NotificationService notificationService = new NotificationService(null, null,
+                NotificationDispatcher.DEFAULT_CAPACITY, OverflowPolicy.COALESCE, executionMode);
+        // -Dflipkart.assignment.shards=N runs N assignment workers over zone-sharded matching
+        int assignmentShards = Integer.getInteger("flipkart.assignment.shards", 1);
+        MatchingEngine matchingEngine = assignmentShards > 1
+                ? new ShardedMatchingEngine(assignmentShards)
+                : new PartnerMatchingEngine();
+        EntityLockManager lockManager = new EntityLockManager();
+        OrderTimeoutScheduler orderTimeouts = new OrderTimeoutScheduler();
+        // Partners that stop heartbeating for this long go offline: -Dflipkart.presence.ttl.seconds=30
+        PartnerPresenceTracker presence = new PartnerPresenceTracker(
+                Duration.ofSeconds(Long.getLong("flipkart.presence.ttl.seconds", 30)));
+        LifecycleEventBus events = new LifecycleEventBus();
+        MetricsRegistry metrics = new MetricsRegistry();
+
+        // Opt-in: -Dflipkart.metrics.file=data/metrics.txt rewrites a snapshot every 5s
+        String metricsFile = System.getProperty("flipkart.metrics.file");
+        MetricsFileExporter metricsExporter = metricsFile == null ? null
+                : new MetricsFileExporter(metrics, Paths.get(metricsFile), 5, TimeUnit.SECONDS);
+
+        // Sample downstream consumer: tallies lifecycle events on its own thread
+        Map<LifecycleEventType, Integer> eventCounts = new EnumMap<>(LifecycleEventType.class);
+        LifecycleEventBus.Subscription analytics = events.subscribe("analytics",
+                event -> eventCounts.merge(event.getType(), 1, Integer::sum));
 
         CustomerService customerService = new CustomerService(customerRepo, notificationService);
 
-        PartnerService partnerService = new PartnerService(partnerRepo, orderRepo, notificationService);
+        PartnerService partnerService = new PartnerService(partnerRepo, orderRepo, notificationService, matchingEngine, lockManager, orderTimeouts, events, metrics, presence);
 
-        OrderService orderService = new OrderService(orderRepo, partnerRepo, notificationService);
+        OrderService orderService = new OrderService(orderRepo, partnerRepo, notificationService, matchingEngine, lockManager, orderTimeouts, events, metrics, executionMode);
+        if (orderArchive != null) {
+            orderService.startArchiving(Duration.ofMinutes(30), Duration.ofMinutes(1));
+        }
 
         Customer c1 = customerService.onboardCustomer("Customer c1", "9876543210");
         Customer c2 = customerService.onboardCustomer("Customer c2", "9876543211");
 
         DeliveryPartner p1 = partnerService.onboardPartner("DeliveryPartner p1", "9999888877", "123");
         DeliveryPartner p2 = partnerService.onboardPartner("DeliveryPartner p2", "9999888878", "456");
+        partnerService.heartbeat(p1.getPartnerId());
+        partnerService.heartbeat(p2.getPartnerId());
 
 
 
@@ -52,10 +123,38 @@ public class Main {
         partnerService.pickUpOrder(p2.getPartnerId(), order5.getOrderId());
         partnerService.completeOrder(p2.getPartnerId(), order5.getOrderId(), 3);
 
+        OrderBatchResult bulk = orderService.createOrders(List.of(
+                new OrderRequest(c1.getCustomerId(), "Kindle"),
+                new OrderRequest(c1.getCustomerId(), "Milk", null, null, OrderPriority.PERISHABLE),
+                new OrderRequest(c2.getCustomerId(), " ")));
+        System.out.println("✓ Bulk feed: " + bulk.getSuccessCount() + " created, "
+                + bulk.getFailureCount() + " rejected (" + bulk.get(2).getError() + ")");
+
 
         partnerService.showTopPartners();
+        System.out.println("✓ Presence: " + presence.getTrackedCount() + " partners tracked, p1 online="
+                + partnerService.isOnline(p1.getPartnerId()));
+
+        analytics.awaitCaughtUp(1, TimeUnit.SECONDS);
+        System.out.println("✓ Lifecycle events: " + eventCounts);
+        System.out.print(metrics.snapshot());
 
         // Cleanup
         orderService.shutdown();
+        partnerService.shutdown();
+        customerService.shutdown();
+        orderTimeouts.shutdown();
+        presence.shutdown();
+        events.close();
+        if (metricsExporter != null) {
+            metricsExporter.close();
+        }
+        notificationService.shutdown();
+        if (dataDir != null) {
+            customerStore.close();
+            partnerStore.close();
+            orderStore.close();
+            orderArchive.close();
+        }
     }
 }
@@ -0,0 +1,116 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import src.models.GeoLocation;
+import src.service.Match;
+import src.service.PartnerMatchingEngine;
+
+import java.util.concurrent.TimeUnit;
+
+// Latency of one match in PartnerMatchingEngine, sampled per operation (p50/p99/p99.9 in the report).
+// Pending orders and free partners can't both be non-empty at rest - they would match - so the
+// two sides are measured separately, each holding its population constant:
+//  - orderMeetsFreePartners: M partners are free; an order arrives and takes the nearest one,
+//    which then comes back at a new position.
+//  - partnerMeetsPendingOrders: N orders are parked; a partner frees up and takes the oldest,
+//    and a new order refills the backlog.
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AssignmentLatencyBenchmark {
+
+    private static final int LOCATIONS = 4096;
+
+    @State(Scope.Thread)
+    public static class FreePartners {
+        @Param({"100", "1000", "10000"})
+        public int partners;
+
+        @Param({"42"})
+        public long seed;
+
+        PartnerMatchingEngine engine;
+        GeoLocation[] locations;
+        long nextOrderId;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            LoadProfile profile = new LoadProfile(seed);
+            locations = new GeoLocation[LOCATIONS];
+            for (int i = 0; i < LOCATIONS; i++) {
+                locations[i] = profile.location();
+            }
+            engine = new PartnerMatchingEngine();
+            for (long partnerId = 1; partnerId <= partners; partnerId++) {
+                engine.partnerAvailable(partnerId, profile.location());
+            }
+        }
+
+        GeoLocation nextLocation() {
+            return locations[next++ & (LOCATIONS - 1)];
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PendingOrders {
+        @Param({"1000", "10000", "100000"})
+        public int pendingOrders;
+
+        @Param({"42"})
+        public long seed;
+
+        PartnerMatchingEngine engine;
+        GeoLocation[] locations;
+        long nextOrderId;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            LoadProfile profile = new LoadProfile(seed);
+            locations = new GeoLocation[LOCATIONS];
+            for (int i = 0; i < LOCATIONS; i++) {
+                locations[i] = profile.location();
+            }
+            engine = new PartnerMatchingEngine();
+            for (nextOrderId = 1; nextOrderId <= pendingOrders; nextOrderId++) {
+                engine.submitOrder(nextOrderId, nextLocation());
+            }
+        }
+
+        GeoLocation nextLocation() {
+            return locations[next++ & (LOCATIONS - 1)];
+        }
+    }
+
+    @Benchmark
+    public long orderMeetsFreePartners(FreePartners state) throws InterruptedException {
+        PartnerMatchingEngine engine = state.engine;
+        engine.submitOrder(++state.nextOrderId, state.nextLocation());
+        Match match = engine.awaitMatch();
+        engine.partnerAvailable(match.getPartnerId(), state.nextLocation());
+        return match.getOrderId();
+    }
+
+    @Benchmark
+    public long partnerMeetsPendingOrders(PendingOrders state) throws InterruptedException {
+        PartnerMatchingEngine engine = state.engine;
+        engine.partnerAvailable(1L, state.nextLocation());
+        Match match = engine.awaitMatch();
+        engine.submitOrder(state.nextOrderId++, state.nextLocation());
+        return match.getOrderId();
+    }
+}
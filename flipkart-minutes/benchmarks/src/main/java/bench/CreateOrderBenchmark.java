@@ -0,0 +1,93 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import src.models.GeoLocation;
+import src.models.Order;
+
+import java.util.concurrent.TimeUnit;
+
+// createOrder throughput with 1, 4 and 16 threads hitting one service. No partners are online,
+// so orders stay parked and the measurement is the create path only (id block, repository +
+// indexes, timeout wheel, event bus, matching engine). The stack is rebuilt per iteration to
+// keep the parked backlog - and heap - bounded.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreateOrderBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Pipeline {
+        @Param({"10000"})
+        public int customers;
+
+        PipelineFixture fixture;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            fixture = new PipelineFixture();
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            fixture.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+        @Param({"42"})
+        public long seed;
+
+        LoadProfile profile;
+        GeoLocation[] pickups;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            profile = new LoadProfile(seed + Thread.currentThread().getId());
+            pickups = new GeoLocation[1024];
+            for (int i = 0; i < pickups.length; i++) {
+                pickups[i] = profile.location();
+            }
+        }
+    }
+
+    private Order create(Pipeline pipeline, Caller caller) {
+        GeoLocation pickup = caller.pickups[caller.next++ & 1023];
+        return pipeline.fixture.orderService.createOrder(
+                caller.profile.id(pipeline.customers), "item", pickup, pickup);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Order createOrderSingleThread(Pipeline pipeline, Caller caller) {
+        return create(pipeline, caller);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Order createOrder4Threads(Pipeline pipeline, Caller caller) {
+        return create(pipeline, caller);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Order createOrder16Threads(Pipeline pipeline, Caller caller) {
+        return create(pipeline, caller);
+    }
+}
@@ -0,0 +1,119 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import src.enums.ExecutionMode;
+import src.models.DeliveryPartner;
+import src.models.GeoLocation;
+import src.util.ExecutionThreads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// One simulated client thread per partner, platform vs virtual threads, no pool sizing.
+// Each client plays a partner app for a short shift: place an order (as a customer), then per
+// round sleep (think time / network wait), send a location ping, and pick up and deliver whatever
+// order it has been assigned. An operation is one whole shift for every partner, start to finish,
+// so the score covers thread start-up, blocking and scheduling at that concurrency.
+// VIRTUAL needs Java 21 at run time (java -jar benchmarks.jar ExecutionMode); on older JDKs it
+// falls back to platform threads with a warning.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xss512k")
+public class ExecutionModeBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Partners {
+        @Param({"PLATFORM", "VIRTUAL"})
+        public ExecutionMode mode;
+
+        @Param({"10000"})
+        public int partners;
+
+        @Param({"20"})
+        public int rounds;
+
+        @Param({"42"})
+        public long seed;
+
+        PipelineFixture fixture;
+        long[] partnerIds;
+        GeoLocation[] locations;
+
+        // Fresh stack per shift so every measured operation starts with all partners free
+        @Setup(Level.Invocation)
+        public void setUp() {
+            fixture = new PipelineFixture(ExecutionThreads.effective(mode));
+            LoadProfile profile = new LoadProfile(seed);
+            partnerIds = new long[partners];
+            for (int i = 0; i < partners; i++) {
+                DeliveryPartner partner = fixture.partnerService.onboardPartner("partner-" + i);
+                partnerIds[i] = partner.getPartnerId();
+            }
+            locations = new GeoLocation[1024];
+            for (int i = 0; i < locations.length; i++) {
+                locations[i] = profile.location();
+            }
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() {
+            fixture.close();
+        }
+    }
+
+    @Benchmark
+    public int shift(Partners state) throws Exception {
+        List<Future<Integer>> clients = new ArrayList<>(state.partners);
+        ExecutorService executor = ExecutionThreads.newPerTaskExecutor(state.mode, "partner-client-");
+        try {
+            for (int i = 0; i < state.partners; i++) {
+                int client = i;
+                clients.add(executor.submit(() -> runClient(state, client)));
+            }
+            int delivered = 0;
+            for (Future<Integer> client : clients) {
+                delivered += client.get();
+            }
+            return delivered;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static int runClient(Partners state, int client) throws InterruptedException {
+        PipelineFixture fixture = state.fixture;
+        long partnerId = state.partnerIds[client];
+        GeoLocation home = state.locations[client & 1023];
+        fixture.orderService.createOrder(client + 1, "item", home, home);
+
+        int delivered = 0;
+        for (int round = 0; round < state.rounds; round++) {
+            Thread.sleep(1);
+            fixture.partnerService.updatePartnerLocation(partnerId, state.locations[(client + round) & 1023]);
+            Long orderId = fixture.partnerRepository.getById(partnerId).getCurrentOrderId();
+            if (orderId != null
+                    && fixture.partnerService.pickUpOrder(partnerId, orderId)
+                    && fixture.partnerService.completeOrder(partnerId, orderId)) {
+                delivered++;
+            }
+        }
+        return delivered;
+    }
+}
@@ -0,0 +1,73 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Heartbeat ingestion for a fleet that is already online (the steady state: every call is a
+// timestamp refresh). The target is 100k/s across the fleet; a score in ops/us x 1e6 is per second.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeartbeatBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Fleet {
+        @Param({"100000"})
+        public int partners;
+
+        PipelineFixture fixture;
+        long[] partnerIds;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            fixture = new PipelineFixture();
+            partnerIds = new long[partners];
+            for (int i = 0; i < partners; i++) {
+                partnerIds[i] = fixture.partnerService.onboardPartner("partner-" + i).getPartnerId();
+                fixture.partnerService.heartbeat(partnerIds[i]);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            fixture.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        LoadProfile profile;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            profile = new LoadProfile(Thread.currentThread().getId());
+        }
+    }
+
+    @Benchmark
+    public boolean heartbeat(Fleet fleet, Client client) {
+        return fleet.fixture.partnerService.heartbeat(fleet.partnerIds[(int) client.profile.id(fleet.partners) - 1]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean heartbeatContended(Fleet fleet, Client client) {
+        return fleet.fixture.partnerService.heartbeat(fleet.partnerIds[(int) client.profile.id(fleet.partners) - 1]);
+    }
+}
@@ -0,0 +1,56 @@
+package bench;
+
+import src.enums.OrderStatus;
+import src.models.GeoLocation;
+
+import java.util.SplittableRandom;
+
+// Seeded generators shared by the benchmarks, so every run (and every fork) sees the same data.
+// Locations fall in a ~30 km box around Bengaluru; the status mix approximates a day's order book.
+public final class LoadProfile {
+
+    private static final double MIN_LAT = 12.83;
+    private static final double MAX_LAT = 13.10;
+    private static final double MIN_LON = 77.45;
+    private static final double MAX_LON = 77.75;
+
+    // Cumulative share per status, in OrderStatus order of the table below
+    private static final OrderStatus[] STATUSES = {
+            OrderStatus.PENDING, OrderStatus.ASSIGNED, OrderStatus.PICKED_UP,
+            OrderStatus.DELIVERED, OrderStatus.CANCELLED};
+    private static final double[] CUMULATIVE_SHARE = {0.03, 0.05, 0.08, 0.95, 1.0};
+
+    private final SplittableRandom random;
+
+    public LoadProfile(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    public GeoLocation location() {
+        return new GeoLocation(MIN_LAT + random.nextDouble() * (MAX_LAT - MIN_LAT),
+                MIN_LON + random.nextDouble() * (MAX_LON - MIN_LON));
+    }
+
+    public OrderStatus status() {
+        double r = random.nextDouble();
+        for (int i = 0; i < STATUSES.length; i++) {
+            if (r < CUMULATIVE_SHARE[i]) {
+                return STATUSES[i];
+            }
+        }
+        return OrderStatus.DELIVERED;
+    }
+
+    // Uniform in [1, bound]
+    public long id(long bound) {
+        return 1 + random.nextLong(bound);
+    }
+
+    public int rating() {
+        return 1 + random.nextInt(5);
+    }
+
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+}
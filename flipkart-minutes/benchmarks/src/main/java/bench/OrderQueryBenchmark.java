@@ -0,0 +1,127 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import src.enums.OrderStatus;
+import src.models.Order;
+import src.repository.OrderRepository;
+import src.repository.PageCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Secondary-index reads on a large order book (1M orders by default, LoadProfile status mix,
+// ~10 orders per customer). findByStatus(PENDING) returns ~3% of the book; DELIVERED ~87%.
+// The scan benchmarks filter the whole book: a findAll() copy versus the in-place views.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class OrderQueryBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class OrderBook {
+        @Param({"1000000"})
+        public int orders;
+
+        @Param({"42"})
+        public long seed;
+
+        OrderRepository repository;
+        int customers;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            LoadProfile profile = new LoadProfile(seed);
+            customers = Math.max(1, orders / 10);
+            repository = new OrderRepository();
+            LocalDateTime now = LocalDateTime.now();
+            for (long orderId = 1; orderId <= orders; orderId++) {
+                Order order = new Order(orderId, profile.id(customers), "item",
+                        profile.location(), profile.location());
+                order.setStatus(profile.status());
+                order.setCreatedAt(now);
+                repository.save(order);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Lookups {
+        LoadProfile profile;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            profile = new LoadProfile(7);
+        }
+    }
+
+    @Benchmark
+    public List<Order> findByStatusPending(OrderBook book) {
+        return book.repository.findByStatus(OrderStatus.PENDING);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Order> findByStatusDelivered(OrderBook book) {
+        return book.repository.findByStatus(OrderStatus.DELIVERED);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public List<Order> findByCustomerId(OrderBook book, Lookups lookups) {
+        return book.repository.findByCustomerId(lookups.profile.id(book.customers));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long scanPendingViaFindAll(OrderBook book) {
+        long count = 0;
+        for (Order order : book.repository.findAll()) {
+            if (order.getStatus() == OrderStatus.PENDING) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long scanPendingViaStream(OrderBook book) {
+        return book.repository.stream().filter(order -> order.getStatus() == OrderStatus.PENDING).count();
+    }
+
+    @Benchmark
+    public List<Order> findFirst100Pending(OrderBook book) {
+        return book.repository.findWhere(order -> order.getStatus() == OrderStatus.PENDING, 100);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long pageThroughAll(OrderBook book) {
+        long count = 0;
+        PageCursor<Order> cursor = book.repository.cursor(1000);
+        while (cursor.hasNext()) {
+            count += cursor.next().size();
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Order getById(OrderBook book, Lookups lookups) {
+        return book.repository.getById(lookups.profile.id(book.orders));
+    }
+}
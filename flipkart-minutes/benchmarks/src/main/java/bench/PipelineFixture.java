@@ -0,0 +1,70 @@
+package bench;
+
+import src.enums.ExecutionMode;
+import src.events.LifecycleEventBus;
+import src.metrics.MetricsRegistry;
+import src.notification.NotificationDispatcher;
+import src.notification.OverflowPolicy;
+import src.repository.CustomerRepository;
+import src.repository.OrderRepository;
+import src.repository.PartnerRepository;
+import src.service.NotificationService;
+import src.service.OrderService;
+import src.service.OrderTimeoutScheduler;
+import src.service.PartnerPresenceTracker;
+import src.service.PartnerMatchingEngine;
+import src.service.PartnerService;
+import src.util.EntityLockManager;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+// The same wiring as Main, minus persistence. Console output (notifications, "✓ ..." lines) is
+// swallowed while the fixture is open - printing would dominate every measurement.
+public final class PipelineFixture implements AutoCloseable {
+
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+
+    public final CustomerRepository customerRepository = new CustomerRepository();
+    public final PartnerRepository partnerRepository = new PartnerRepository();
+    public final OrderRepository orderRepository = new OrderRepository();
+
+    public final NotificationService notificationService;
+    public final PartnerMatchingEngine matchingEngine = new PartnerMatchingEngine();
+    public final OrderTimeoutScheduler timeouts = new OrderTimeoutScheduler();
+    public final PartnerPresenceTracker presence = new PartnerPresenceTracker();
+    public final LifecycleEventBus events = new LifecycleEventBus();
+    public final MetricsRegistry metrics = new MetricsRegistry();
+
+    public final PartnerService partnerService;
+    public final OrderService orderService;
+
+    private final PrintStream originalOut = System.out;
+
+    public PipelineFixture() {
+        this(ExecutionMode.PLATFORM);
+    }
+
+    // executionMode picks the threads for assignment workers and notification delivery
+    public PipelineFixture(ExecutionMode executionMode) {
+        System.setOut(DISCARD);
+        notificationService = new NotificationService(null, null,
+                NotificationDispatcher.DEFAULT_CAPACITY, OverflowPolicy.COALESCE, executionMode);
+        EntityLockManager lockManager = new EntityLockManager();
+        partnerService = new PartnerService(partnerRepository, orderRepository, notificationService,
+                matchingEngine, lockManager, timeouts, events, metrics, presence);
+        orderService = new OrderService(orderRepository, partnerRepository, notificationService,
+                matchingEngine, lockManager, timeouts, events, metrics, executionMode);
+    }
+
+    @Override
+    public void close() {
+        orderService.shutdown();
+        partnerService.shutdown();
+        timeouts.shutdown();
+        presence.shutdown();
+        events.close();
+        notificationService.shutdown();
+        System.setOut(originalOut);
+    }
+}
@@ -0,0 +1,76 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import src.models.DeliveryPartner;
+import src.repository.PartnerRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Leaderboard cost: reading the top 10, and the re-rank a delivery + rating triggers on save
+// (what completeOrder pays). Partners start with seeded delivery counts and ratings.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TopPartnersBenchmark {
+
+    @State(Scope.Thread)
+    public static class Leaderboard {
+        @Param({"1000", "100000"})
+        public int partners;
+
+        @Param({"10"})
+        public int limit;
+
+        @Param({"42"})
+        public long seed;
+
+        PartnerRepository repository;
+        DeliveryPartner[] all;
+        LoadProfile profile;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            profile = new LoadProfile(seed);
+            repository = new PartnerRepository();
+            all = new DeliveryPartner[partners];
+            for (int i = 0; i < partners; i++) {
+                DeliveryPartner partner = new DeliveryPartner(i + 1, "partner-" + (i + 1));
+                int ratings = profile.nextInt(200);
+                double total = 0;
+                for (int r = 0; r < ratings; r++) {
+                    total += profile.rating();
+                }
+                partner.restoreStats(ratings + profile.nextInt(50), total, ratings);
+                repository.save(partner);
+                all[i] = partner;
+            }
+        }
+    }
+
+    @Benchmark
+    public List<DeliveryPartner> getTopPartners(Leaderboard board) {
+        return board.repository.getTopPartners(board.limit);
+    }
+
+    @Benchmark
+    public DeliveryPartner deliveryThenSave(Leaderboard board) {
+        DeliveryPartner partner = board.all[board.profile.nextInt(board.partners)];
+        partner.incrementDeliveries();
+        partner.addRating(board.profile.rating());
+        return board.repository.save(partner);
+    }
+}
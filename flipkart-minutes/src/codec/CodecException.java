@@ -0,0 +1,14 @@
+package src.codec;
+
+public class CodecException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CodecException(String message) {
+        super(message);
+    }
+
+    public CodecException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
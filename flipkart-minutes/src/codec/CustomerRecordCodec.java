@@ -0,0 +1,47 @@
+package src.codec;
+
+import src.models.Customer;
+
+public class CustomerRecordCodec implements RecordCodec<Customer> {
+
+    private static final int CUSTOMER_ID = 1;
+    private static final int NAME = 2;
+    private static final int PHONE = 3;
+    private static final int EMAIL = 4;
+
+    @Override
+    public String entityType() {
+        return "customer";
+    }
+
+    @Override
+    public void write(Customer customer, RecordWriter out) {
+        out.writeLong(CUSTOMER_ID, customer.getCustomerId());
+        out.writeString(NAME, customer.getName());
+        out.writeString(PHONE, customer.getPhone());
+        out.writeString(EMAIL, customer.getEmail());
+    }
+
+    @Override
+    public Customer read(RecordReader in) {
+        long customerId = 0;
+        String name = null;
+        String phone = null;
+        String email = null;
+
+        for (int field = in.nextField(); field != RecordReader.END; field = in.nextField()) {
+            switch (field) {
+                case CUSTOMER_ID: customerId = in.readLong(); break;
+                case NAME: name = in.readString(); break;
+                case PHONE: phone = in.readString(); break;
+                case EMAIL: email = in.readString(); break;
+                default: in.skip();
+            }
+        }
+
+        Customer customer = new Customer(customerId, name);
+        customer.setPhone(phone);
+        customer.setEmail(email);
+        return customer;
+    }
+}
@@ -0,0 +1,94 @@
+package src.codec;
+
+import src.enums.OrderPriority;
+import src.enums.OrderStatus;
+import src.models.Order;
+
+import java.time.LocalDateTime;
+
+public class OrderRecordCodec implements RecordCodec<Order> {
+
+    private static final int ORDER_ID = 1;
+    private static final int CUSTOMER_ID = 2;
+    private static final int ITEM_NAME = 3;
+    private static final int STATUS = 4;
+    private static final int ASSIGNED_PARTNER_ID = 5;
+    private static final int CREATED_AT = 6;
+    private static final int PICKED_UP_AT = 7;
+    private static final int DELIVERED_AT = 8;
+    private static final int PICKUP_LATITUDE = 9;
+    private static final int PICKUP_LONGITUDE = 10;
+    private static final int DROP_LATITUDE = 11;
+    private static final int DROP_LONGITUDE = 12;
+    private static final int PRIORITY = 13;
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final OrderPriority[] PRIORITIES = OrderPriority.values();
+
+    @Override
+    public String entityType() {
+        return "order";
+    }
+
+    @Override
+    public void write(Order order, RecordWriter out) {
+        out.writeLong(ORDER_ID, order.getOrderId());
+        out.writeLong(CUSTOMER_ID, order.getCustomerId());
+        out.writeString(ITEM_NAME, order.getItemName());
+        out.writeEnum(STATUS, order.getStatus());
+        out.writeLong(ASSIGNED_PARTNER_ID, order.getAssignedPartnerId());
+        out.writeTime(CREATED_AT, order.getCreatedAt());
+        out.writeTime(PICKED_UP_AT, order.getPickedUpAt());
+        out.writeTime(DELIVERED_AT, order.getDeliveredAt());
+        out.writeLocation(PICKUP_LATITUDE, PICKUP_LONGITUDE, order.getPickupLocation());
+        out.writeLocation(DROP_LATITUDE, DROP_LONGITUDE, order.getDropLocation());
+        out.writeEnum(PRIORITY, order.getPriority());
+    }
+
+    @Override
+    public Order read(RecordReader in) {
+        long orderId = 0;
+        long customerId = 0;
+        String itemName = null;
+        OrderStatus status = OrderStatus.PENDING;
+        OrderPriority priority = null;
+        Long assignedPartnerId = null;
+        LocalDateTime createdAt = null;
+        LocalDateTime pickedUpAt = null;
+        LocalDateTime deliveredAt = null;
+        double pickupLat = Double.NaN, pickupLon = Double.NaN, dropLat = Double.NaN, dropLon = Double.NaN;
+
+        for (int field = in.nextField(); field != RecordReader.END; field = in.nextField()) {
+            switch (field) {
+                case ORDER_ID: orderId = in.readLong(); break;
+                case CUSTOMER_ID: customerId = in.readLong(); break;
+                case ITEM_NAME: itemName = in.readString(); break;
+                case STATUS: status = in.readEnum(STATUSES); break;
+                case ASSIGNED_PARTNER_ID: assignedPartnerId = in.readLong(); break;
+                case CREATED_AT: createdAt = in.readTime(); break;
+                case PICKED_UP_AT: pickedUpAt = in.readTime(); break;
+                case DELIVERED_AT: deliveredAt = in.readTime(); break;
+                case PICKUP_LATITUDE: pickupLat = in.readDouble(); break;
+                case PICKUP_LONGITUDE: pickupLon = in.readDouble(); break;
+                case DROP_LATITUDE: dropLat = in.readDouble(); break;
+                case DROP_LONGITUDE: dropLon = in.readDouble(); break;
+                case PRIORITY: priority = in.readEnum(PRIORITIES); break;
+                default: in.skip();
+            }
+        }
+
+        Order order = new Order(orderId, customerId, itemName,
+                RecordReader.location(pickupLat, pickupLon), RecordReader.location(dropLat, dropLon));
+        order.setStatus(status);
+        if (priority != null) {
+            order.setPriority(priority);
+        }
+        order.setAssignedPartnerId(assignedPartnerId);
+        if (createdAt != null) {
+            order.setCreatedAt(createdAt);
+        }
+        order.setPickedUpAt(pickedUpAt);
+        order.setDeliveredAt(deliveredAt);
+        return order;
+    }
+}
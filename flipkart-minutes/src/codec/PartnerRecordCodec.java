@@ -0,0 +1,80 @@
+package src.codec;
+
+import src.enums.PartnerStatus;
+import src.models.DeliveryPartner;
+
+public class PartnerRecordCodec implements RecordCodec<DeliveryPartner> {
+
+    private static final int PARTNER_ID = 1;
+    private static final int NAME = 2;
+    private static final int PHONE = 3;
+    private static final int VEHICLE_NUMBER = 4;
+    private static final int STATUS = 5;
+    private static final int CURRENT_ORDER_ID = 6;
+    private static final int TOTAL_DELIVERIES = 7;
+    private static final int TOTAL_RATING = 8;
+    private static final int RATING_COUNT = 9;
+    private static final int LATITUDE = 10;
+    private static final int LONGITUDE = 11;
+
+    private static final PartnerStatus[] STATUSES = PartnerStatus.values();
+
+    @Override
+    public String entityType() {
+        return "partner";
+    }
+
+    @Override
+    public void write(DeliveryPartner partner, RecordWriter out) {
+        out.writeLong(PARTNER_ID, partner.getPartnerId());
+        out.writeString(NAME, partner.getName());
+        out.writeString(PHONE, partner.getPhone());
+        out.writeString(VEHICLE_NUMBER, partner.getVehicleNumber());
+        out.writeEnum(STATUS, partner.getStatus());
+        out.writeLong(CURRENT_ORDER_ID, partner.getCurrentOrderId());
+        out.writeInt(TOTAL_DELIVERIES, partner.getTotalDeliveries());
+        out.writeDouble(TOTAL_RATING, partner.getTotalRating());
+        out.writeInt(RATING_COUNT, partner.getRatingCount());
+        out.writeLocation(LATITUDE, LONGITUDE, partner.getLocation());
+    }
+
+    @Override
+    public DeliveryPartner read(RecordReader in) {
+        long partnerId = 0;
+        String name = null;
+        String phone = null;
+        String vehicleNumber = null;
+        PartnerStatus status = PartnerStatus.AVAILABLE;
+        Long currentOrderId = null;
+        int totalDeliveries = 0;
+        double totalRating = 0.0;
+        int ratingCount = 0;
+        double latitude = Double.NaN, longitude = Double.NaN;
+
+        for (int field = in.nextField(); field != RecordReader.END; field = in.nextField()) {
+            switch (field) {
+                case PARTNER_ID: partnerId = in.readLong(); break;
+                case NAME: name = in.readString(); break;
+                case PHONE: phone = in.readString(); break;
+                case VEHICLE_NUMBER: vehicleNumber = in.readString(); break;
+                case STATUS: status = in.readEnum(STATUSES); break;
+                case CURRENT_ORDER_ID: currentOrderId = in.readLong(); break;
+                case TOTAL_DELIVERIES: totalDeliveries = in.readInt(); break;
+                case TOTAL_RATING: totalRating = in.readDouble(); break;
+                case RATING_COUNT: ratingCount = in.readInt(); break;
+                case LATITUDE: latitude = in.readDouble(); break;
+                case LONGITUDE: longitude = in.readDouble(); break;
+                default: in.skip();
+            }
+        }
+
+        DeliveryPartner partner = new DeliveryPartner(partnerId, name);
+        partner.setPhone(phone);
+        partner.setVehicleNumber(vehicleNumber);
+        partner.setStatus(status);
+        partner.setCurrentOrderId(currentOrderId);
+        partner.restoreStats(totalDeliveries, totalRating, ratingCount);
+        partner.setLocation(RecordReader.location(latitude, longitude));
+        return partner;
+    }
+}
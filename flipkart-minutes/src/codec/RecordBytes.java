@@ -0,0 +1,23 @@
+package src.codec;
+
+import java.util.Arrays;
+
+// Single records outside a record file (archives, messages). No string table: every string is
+// written inline so each record decodes on its own.
+public final class RecordBytes {
+
+    private RecordBytes() {
+    }
+
+    public static <T> byte[] encode(RecordCodec<T> codec, T entity) {
+        RecordWriter writer = new RecordWriter(StringTable.inlineOnly());
+        codec.write(entity, writer);
+        return Arrays.copyOf(writer.recordBytes(), writer.recordLength());
+    }
+
+    public static <T> T decode(RecordCodec<T> codec, byte[] buffer, int offset, int length) {
+        RecordReader reader = new RecordReader(StringTable.inlineOnly());
+        reader.reset(buffer, offset, length);
+        return codec.read(reader);
+    }
+}
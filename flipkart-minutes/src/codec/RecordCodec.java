@@ -0,0 +1,13 @@
+package src.codec;
+
+// Maps one entity type to tagged fields. Field numbers are never reused: new fields get new
+// numbers, readers skip numbers they don't know and default the ones that are missing.
+public interface RecordCodec<T> {
+
+    // Identifies the entity type in the file header
+    String entityType();
+
+    void write(T entity, RecordWriter out);
+
+    T read(RecordReader in);
+}
@@ -0,0 +1,130 @@
+package src.codec;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+// Streams records back out of a file written by RecordFileWriter. Records are decoded straight
+// out of a reusable read buffer, so the only allocations are the entities themselves and the
+// first copy of each interned string.
+public class RecordFileReader<T> implements Closeable {
+
+    private final InputStream in;
+    private final RecordCodec<T> codec;
+    private final StringTable strings = new StringTable();
+    private final RecordReader reader = new RecordReader(strings);
+
+    private byte[] buffer = new byte[1 << 16];
+    private int position;
+    private int limit;
+    private boolean finished;
+
+    public RecordFileReader(InputStream in, RecordCodec<T> codec) throws IOException {
+        this.in = in;
+        this.codec = codec;
+
+        fill(5);
+        int magic = ((buffer[0] & 0xFF) << 24) | ((buffer[1] & 0xFF) << 16)
+                | ((buffer[2] & 0xFF) << 8) | (buffer[3] & 0xFF);
+        if (magic != RecordFileWriter.MAGIC) {
+            throw new CodecException("Not a record file");
+        }
+        int version = buffer[4] & 0xFF;
+        if (version > RecordFileWriter.FORMAT_VERSION) {
+            throw new CodecException("Record file format " + version + " is newer than this build supports");
+        }
+        position = 5;
+        int typeLength = (int) readVarLong();
+        fill(typeLength);
+        String type = new String(buffer, position, typeLength, StandardCharsets.UTF_8);
+        position += typeLength;
+        if (!type.equals(codec.entityType())) {
+            throw new CodecException("File holds " + type + " records, not " + codec.entityType());
+        }
+    }
+
+    public static <T> long readAll(Path file, RecordCodec<T> codec, Consumer<T> consumer) throws IOException {
+        try (RecordFileReader<T> reader = new RecordFileReader<>(Files.newInputStream(file), codec)) {
+            long count = 0;
+            for (T entity = reader.next(); entity != null; entity = reader.next()) {
+                consumer.accept(entity);
+                count++;
+            }
+            return count;
+        }
+    }
+
+    // Next entity, or null at the end of the file
+    public T next() throws IOException {
+        while (!finished) {
+            fill(1);
+            int frame = buffer[position++];
+            switch (frame) {
+                case RecordFileWriter.FRAME_END:
+                    finished = true;
+                    break;
+                case RecordFileWriter.FRAME_STRING: {
+                    int length = (int) readVarLong();
+                    fill(length);
+                    strings.append(new String(buffer, position, length, StandardCharsets.UTF_8));
+                    position += length;
+                    break;
+                }
+                case RecordFileWriter.FRAME_RECORD: {
+                    int length = (int) readVarLong();
+                    fill(length);
+                    reader.reset(buffer, position, length);
+                    position += length;
+                    return codec.read(reader);
+                }
+                default:
+                    throw new CodecException("Unknown frame type " + frame);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            fill(1);
+            byte b = buffer[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new CodecException("Malformed varint");
+    }
+
+    // Make at least `bytes` unread bytes available in the buffer
+    private void fill(int bytes) throws IOException {
+        if (limit - position >= bytes) {
+            return;
+        }
+        if (bytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(bytes, buffer.length * 2));
+        }
+        int remaining = limit - position;
+        System.arraycopy(buffer, position, buffer, 0, remaining);
+        position = 0;
+        limit = remaining;
+        while (limit < bytes) {
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                throw new CodecException("Record file truncated");
+            }
+            limit += read;
+        }
+    }
+}
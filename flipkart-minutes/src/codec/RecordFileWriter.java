@@ -0,0 +1,107 @@
+package src.codec;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Record file layout:
+//   int magic, byte format version, varint + UTF-8 entity type
+//   frames: 0x01 string definition (varint length, UTF-8) | 0x02 record (varint length, fields) | 0x00 end
+// A string's definition frame always precedes the first record that references it.
+public class RecordFileWriter<T> implements Closeable {
+
+    static final int MAGIC = 0x464D5246; // "FMRF"
+    static final int FORMAT_VERSION = 1;
+    static final int FRAME_END = 0;
+    static final int FRAME_STRING = 1;
+    static final int FRAME_RECORD = 2;
+
+    private final OutputStream out;
+    private final RecordCodec<T> codec;
+    private final StringTable strings = new StringTable();
+    private final RecordWriter writer = new RecordWriter(strings);
+    private final byte[] scratch = new byte[16];
+    private long recordCount;
+    private boolean closed;
+
+    public RecordFileWriter(OutputStream out, RecordCodec<T> codec) throws IOException {
+        this.out = new BufferedOutputStream(out, 1 << 16);
+        this.codec = codec;
+        writeInt(MAGIC);
+        this.out.write(FORMAT_VERSION);
+        byte[] type = codec.entityType().getBytes(StandardCharsets.UTF_8);
+        writeVarLong(type.length);
+        this.out.write(type);
+    }
+
+    public static <T> long writeAll(Path file, RecordCodec<T> codec, Iterable<T> entities) throws IOException {
+        try (RecordFileWriter<T> writer = new RecordFileWriter<>(Files.newOutputStream(file), codec)) {
+            for (T entity : entities) {
+                writer.write(entity);
+            }
+            return writer.getRecordCount();
+        }
+    }
+
+    public void write(T entity) throws IOException {
+        writer.reset();
+        codec.write(entity, writer);
+
+        byte[] definitions = writer.definitionBytes();
+        int length = writer.definitionsLength();
+        int offset = 0;
+        while (offset < length) {
+            // Each definition is already (varint length, bytes); frame it as-is
+            int start = offset;
+            long size = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = definitions[offset++];
+                size |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            offset += (int) size;
+            out.write(FRAME_STRING);
+            out.write(definitions, start, offset - start);
+        }
+
+        out.write(FRAME_RECORD);
+        writeVarLong(writer.recordLength());
+        out.write(writer.recordBytes(), 0, writer.recordLength());
+        recordCount++;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            out.write(FRAME_END);
+            out.flush();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        out.write(scratch, 0, RecordWriter.putVarLong(scratch, 0, value));
+    }
+
+    private void writeInt(int value) throws IOException {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+}
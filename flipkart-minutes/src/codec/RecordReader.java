@@ -0,0 +1,138 @@
+package src.codec;
+
+import src.models.GeoLocation;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Walks the tagged fields of one record in place, without copying it:
+//   for (int f = in.nextField(); f != RecordReader.END; f = in.nextField()) switch (f) { ... default: in.skip(); }
+// Reused across records by RecordFileReader.
+public class RecordReader {
+
+    public static final int END = -1;
+
+    private final StringTable strings;
+
+    private byte[] buffer;
+    private int position;
+    private int end;
+    private int wireType;
+
+    RecordReader(StringTable strings) {
+        this.strings = strings;
+    }
+
+    void reset(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.end = offset + length;
+    }
+
+    // Next field number, or END when the record is exhausted
+    public int nextField() {
+        if (position >= end) {
+            return END;
+        }
+        long header = readVarLong();
+        wireType = (int) (header & 0x3);
+        return (int) (header >>> 2);
+    }
+
+    public long readLong() {
+        expect(RecordWriter.WIRE_VARINT);
+        long raw = readVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    public int readInt() {
+        return (int) readLong();
+    }
+
+    public double readDouble() {
+        expect(RecordWriter.WIRE_FIXED64);
+        require(8);
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits |= (buffer[position++] & 0xFFL) << (8 * i);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    // Ordinals written by a newer schema that this build doesn't know decode as null
+    public <E extends Enum<E>> E readEnum(E[] values) {
+        expect(RecordWriter.WIRE_VARINT);
+        long ordinal = readVarLong();
+        return ordinal < values.length ? values[(int) ordinal] : null;
+    }
+
+    public LocalDateTime readTime() {
+        long millis = readLong();
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L),
+                (int) Math.floorMod(millis, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    public String readString() {
+        if (wireType == RecordWriter.WIRE_STRING_REF) {
+            return strings.get((int) readVarLong());
+        }
+        expect(RecordWriter.WIRE_BYTES);
+        int length = (int) readVarLong();
+        require(length);
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    // Convenience for a (latitude, longitude) pair once both fields have been read
+    public static GeoLocation location(double latitude, double longitude) {
+        return Double.isNaN(latitude) || Double.isNaN(longitude) ? null : new GeoLocation(latitude, longitude);
+    }
+
+    // Skip the value of a field this codec doesn't know
+    public void skip() {
+        switch (wireType) {
+            case RecordWriter.WIRE_VARINT:
+            case RecordWriter.WIRE_STRING_REF:
+                readVarLong();
+                break;
+            case RecordWriter.WIRE_FIXED64:
+                require(8);
+                position += 8;
+                break;
+            case RecordWriter.WIRE_BYTES:
+                int length = (int) readVarLong();
+                require(length);
+                position += length;
+                break;
+            default:
+                throw new CodecException("Unknown wire type " + wireType);
+        }
+    }
+
+    private long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            require(1);
+            byte b = buffer[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new CodecException("Malformed varint");
+    }
+
+    private void expect(int expected) {
+        if (wireType != expected) {
+            throw new CodecException("Wire type " + wireType + " where " + expected + " was expected");
+        }
+    }
+
+    private void require(int bytes) {
+        if (bytes < 0 || position + bytes > end) {
+            throw new CodecException("Record truncated");
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package src.codec;
+
+import src.models.GeoLocation;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+// Encodes one record as tagged fields: varint header (field << 2 | wire type), then the value.
+// Null values are simply omitted. Reused across records - RecordFileWriter resets it each time.
+public class RecordWriter {
+
+    static final int WIRE_VARINT = 0;
+    static final int WIRE_FIXED64 = 1;
+    static final int WIRE_BYTES = 2;
+    static final int WIRE_STRING_REF = 3;
+
+    private final StringTable strings;
+
+    private byte[] record = new byte[256];
+    private int recordLength;
+
+    // First occurrences interned while encoding this record; emitted ahead of it
+    private byte[] definitions = new byte[256];
+    private int definitionsLength;
+
+    RecordWriter(StringTable strings) {
+        this.strings = strings;
+    }
+
+    public void writeLong(int field, long value) {
+        header(field, WIRE_VARINT);
+        putVarLong(zigZag(value));
+    }
+
+    public void writeLong(int field, Long value) {
+        if (value != null) {
+            writeLong(field, value.longValue());
+        }
+    }
+
+    public void writeInt(int field, int value) {
+        writeLong(field, value);
+    }
+
+    public void writeDouble(int field, double value) {
+        header(field, WIRE_FIXED64);
+        long bits = Double.doubleToRawLongBits(value);
+        ensureRecord(8);
+        for (int i = 0; i < 8; i++) {
+            record[recordLength++] = (byte) (bits >>> (8 * i));
+        }
+    }
+
+    public void writeEnum(int field, Enum<?> value) {
+        if (value != null) {
+            header(field, WIRE_VARINT);
+            putVarLong(value.ordinal());
+        }
+    }
+
+    // Epoch millis, UTC
+    public void writeTime(int field, LocalDateTime value) {
+        if (value != null) {
+            writeLong(field, value.toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+    }
+
+    public void writeLocation(int latitudeField, int longitudeField, GeoLocation location) {
+        if (location != null) {
+            writeDouble(latitudeField, location.getLatitude());
+            writeDouble(longitudeField, location.getLongitude());
+        }
+    }
+
+    public void writeString(int field, String value) {
+        if (value == null) {
+            return;
+        }
+        int index = strings.indexOf(value);
+        if (index < 0 && strings.canIntern(value)) {
+            index = strings.add(value);
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            ensureDefinitions(5 + bytes.length);
+            definitionsLength = putVarLong(definitions, definitionsLength, bytes.length);
+            System.arraycopy(bytes, 0, definitions, definitionsLength, bytes.length);
+            definitionsLength += bytes.length;
+        }
+        if (index >= 0) {
+            header(field, WIRE_STRING_REF);
+            putVarLong(index);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            header(field, WIRE_BYTES);
+            putVarLong(bytes.length);
+            ensureRecord(bytes.length);
+            System.arraycopy(bytes, 0, record, recordLength, bytes.length);
+            recordLength += bytes.length;
+        }
+    }
+
+    void reset() {
+        recordLength = 0;
+        definitionsLength = 0;
+    }
+
+    byte[] recordBytes() {
+        return record;
+    }
+
+    int recordLength() {
+        return recordLength;
+    }
+
+    // Concatenated (varint length, UTF-8 bytes) pairs, one per new string
+    byte[] definitionBytes() {
+        return definitions;
+    }
+
+    int definitionsLength() {
+        return definitionsLength;
+    }
+
+    private void header(int field, int wireType) {
+        if (field <= 0) {
+            throw new IllegalArgumentException("Field numbers start at 1: " + field);
+        }
+        putVarLong(((long) field << 2) | wireType);
+    }
+
+    private void putVarLong(long value) {
+        ensureRecord(10);
+        recordLength = putVarLong(record, recordLength, value);
+    }
+
+    static int putVarLong(byte[] buffer, int offset, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[offset++] = (byte) value;
+        return offset;
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private void ensureRecord(int extra) {
+        if (recordLength + extra > record.length) {
+            record = Arrays.copyOf(record, Math.max(record.length * 2, recordLength + extra));
+        }
+    }
+
+    private void ensureDefinitions(int extra) {
+        if (definitionsLength + extra > definitions.length) {
+            definitions = Arrays.copyOf(definitions, Math.max(definitions.length * 2, definitionsLength + extra));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package src.codec;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Strings seen earlier in a record file, referenced by index instead of repeated. Writer and
+// reader build the same table in the same order, so only first occurrences carry bytes.
+// Long strings and anything past the size cap are written inline and never interned.
+public class StringTable {
+
+    public static final int MAX_ENTRIES = 1 << 20;
+    public static final int MAX_INTERNED_LENGTH = 64;
+
+    private final Map<String, Integer> indexByValue = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+    private final boolean interning;
+
+    public StringTable() {
+        this(true);
+    }
+
+    private StringTable(boolean interning) {
+        this.interning = interning;
+    }
+
+    // For standalone records that must decode without the rest of a file: every string inline
+    static StringTable inlineOnly() {
+        return new StringTable(false);
+    }
+
+    // Writer side: existing index, or -1 if the value is not interned
+    int indexOf(String value) {
+        Integer index = indexByValue.get(value);
+        return index == null ? -1 : index;
+    }
+
+    boolean canIntern(String value) {
+        return interning && values.size() < MAX_ENTRIES && value.length() <= MAX_INTERNED_LENGTH;
+    }
+
+    // Writer side
+    int add(String value) {
+        int index = values.size();
+        values.add(value);
+        indexByValue.put(value, index);
+        return index;
+    }
+
+    // Reader side - lookups are by index only, so no reverse map
+    void append(String value) {
+        values.add(value);
+    }
+
+    String get(int index) {
+        if (index < 0 || index >= values.size()) {
+            throw new CodecException("Unknown string table index " + index);
+        }
+        return values.get(index);
+    }
+
+    public int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,7 @@
+package src.enums;
+
+// Which threads run request handling, assignment workers and notification delivery
+public enum ExecutionMode {
+    PLATFORM,
+    VIRTUAL
+}
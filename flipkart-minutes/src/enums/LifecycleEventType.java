@@ -0,0 +1,11 @@
+package src.enums;
+
+public enum LifecycleEventType {
+    ORDER_CREATED,
+    ORDER_ASSIGNED,
+    ORDER_UNASSIGNED,
+    ORDER_PICKED_UP,
+    ORDER_DELIVERED,
+    ORDER_CANCELLED,
+    PARTNER_STATUS_CHANGED
+}
@@ -0,0 +1,22 @@
+package src.enums;
+
+import java.time.Duration;
+
+// Priority class of an order, expressed as how soon it should have a partner. Pending orders are
+// served earliest-deadline-first, so premium and perishable orders jump the queue while standard
+// orders still get their turn once their own deadline is the nearest.
+public enum OrderPriority {
+    PREMIUM(Duration.ofMinutes(2)),
+    PERISHABLE(Duration.ofMinutes(5)),
+    STANDARD(Duration.ofMinutes(15));
+
+    private final Duration assignWithin;
+
+    OrderPriority(Duration assignWithin) {
+        this.assignWithin = assignWithin;
+    }
+
+    public Duration getAssignWithin() {
+        return assignWithin;
+    }
+}
@@ -0,0 +1,7 @@
+package src.enums;
+
+public enum OrderTimeoutType {
+    AUTO_CANCEL,
+    PICKUP_SLA,
+    DELIVERY_SLA
+}
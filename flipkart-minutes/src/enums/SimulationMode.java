@@ -0,0 +1,8 @@
+package src.enums;
+
+public enum SimulationMode {
+    // Events fire at their real due time; latencies are real
+    WALL_CLOCK,
+    // Discrete-event: the clock jumps to the next event, so hours of load run in seconds
+    VIRTUAL_TIME
+}
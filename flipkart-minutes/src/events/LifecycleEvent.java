@@ -0,0 +1,73 @@
+package src.events;
+
+import src.enums.LifecycleEventType;
+import src.enums.PartnerStatus;
+
+// Immutable, so a slot can be overwritten by the producer while a consumer still holds the old event.
+// partnerId is -1 and partnerStatus null where they don't apply.
+public final class LifecycleEvent {
+
+    public static final long NO_ID = -1L;
+
+    private final long sequence;
+    private final LifecycleEventType type;
+    private final long timestampMillis;
+    private final long orderId;
+    private final long customerId;
+    private final long partnerId;
+    private final PartnerStatus partnerStatus;
+
+    LifecycleEvent(long sequence, LifecycleEventType type, long timestampMillis,
+                   long orderId, long customerId, long partnerId, PartnerStatus partnerStatus) {
+        this.sequence = sequence;
+        this.type = type;
+        this.timestampMillis = timestampMillis;
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.partnerId = partnerId;
+        this.partnerStatus = partnerStatus;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public LifecycleEventType getType() {
+        return type;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public long getCustomerId() {
+        return customerId;
+    }
+
+    public long getPartnerId() {
+        return partnerId;
+    }
+
+    public PartnerStatus getPartnerStatus() {
+        return partnerStatus;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("#").append(sequence).append(' ').append(type);
+        if (orderId != NO_ID) {
+            sb.append(" order=").append(orderId);
+        }
+        if (partnerId != NO_ID) {
+            sb.append(" partner=").append(partnerId);
+        }
+        if (partnerStatus != null) {
+            sb.append(" -> ").append(partnerStatus);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,227 @@
+package src.events;
+
+import src.enums.LifecycleEventType;
+import src.enums.PartnerStatus;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+// In-process order/partner lifecycle stream over a single ring buffer (Disruptor-style).
+// Producers claim a sequence with one getAndIncrement and store into slot (sequence & mask); they
+// never wait for consumers. Each subscription owns its thread and its own read sequence, so slow
+// consumers don't hold back fast ones or the fulfilment path. A consumer that falls a full ring
+// behind is lapped: it skips ahead and is told how many events it lost.
+// The ring also serves as the replay window - subscribe from any sequence still retained.
+public class LifecycleEventBus implements AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final int SPIN_TRIES = 100;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final AtomicReferenceArray<LifecycleEvent> ring;
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    public LifecycleEventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LifecycleEventBus(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+    }
+
+    public void orderCreated(long orderId, long customerId) {
+        publish(LifecycleEventType.ORDER_CREATED, orderId, customerId, LifecycleEvent.NO_ID, null);
+    }
+
+    public void orderAssigned(long orderId, long customerId, long partnerId) {
+        publish(LifecycleEventType.ORDER_ASSIGNED, orderId, customerId, partnerId, null);
+    }
+
+    // Assigned order back in line because its partner dropped off before pickup
+    public void orderUnassigned(long orderId, long customerId, long partnerId) {
+        publish(LifecycleEventType.ORDER_UNASSIGNED, orderId, customerId, partnerId, null);
+    }
+
+    public void orderPickedUp(long orderId, long customerId, long partnerId) {
+        publish(LifecycleEventType.ORDER_PICKED_UP, orderId, customerId, partnerId, null);
+    }
+
+    public void orderDelivered(long orderId, long customerId, long partnerId) {
+        publish(LifecycleEventType.ORDER_DELIVERED, orderId, customerId, partnerId, null);
+    }
+
+    // partnerId is NO_ID for an order cancelled before assignment
+    public void orderCancelled(long orderId, long customerId, long partnerId) {
+        publish(LifecycleEventType.ORDER_CANCELLED, orderId, customerId, partnerId, null);
+    }
+
+    public void partnerStatusChanged(long partnerId, PartnerStatus status) {
+        publish(LifecycleEventType.PARTNER_STATUS_CHANGED, LifecycleEvent.NO_ID, LifecycleEvent.NO_ID, partnerId, status);
+    }
+
+    // Wait-free apart from the slot CAS, which only retries against another producer a full lap ahead
+    private void publish(LifecycleEventType type, long orderId, long customerId, long partnerId, PartnerStatus status) {
+        long sequence = nextSequence.getAndIncrement();
+        LifecycleEvent event = new LifecycleEvent(sequence, type, System.currentTimeMillis(),
+                orderId, customerId, partnerId, status);
+        int index = (int) sequence & mask;
+        while (true) {
+            LifecycleEvent current = ring.get(index);
+            if (current != null && current.getSequence() > sequence) {
+                return; // already lapped before we stored it; consumers see the gap as an overrun
+            }
+            if (ring.compareAndSet(index, current, event)) {
+                return;
+            }
+        }
+    }
+
+    // New events only
+    public Subscription subscribe(String name, LifecycleEventHandler handler) {
+        return subscribe(name, handler, nextSequence.get());
+    }
+
+    // Replays from `fromSequence` (e.g. a checkpoint saved from Subscription.getSequence()), then follows
+    // live events. Sequences older than the ring holds are reported through onOverrun.
+    public Subscription subscribe(String name, LifecycleEventHandler handler, long fromSequence) {
+        if (fromSequence < 0) {
+            throw new IllegalArgumentException("Negative sequence: " + fromSequence);
+        }
+        Subscription subscription = new Subscription(name, handler, fromSequence);
+        subscriptions.add(subscription);
+        subscription.thread.start();
+        return subscription;
+    }
+
+    // Sequence the next published event will get
+    public long getPublishedCount() {
+        return nextSequence.get();
+    }
+
+    public long getOldestRetainedSequence() {
+        return Math.max(0, nextSequence.get() - capacity);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public void close() {
+        for (Subscription subscription : subscriptions) {
+            subscription.close();
+        }
+    }
+
+    public final class Subscription implements AutoCloseable {
+        private final String name;
+        private final LifecycleEventHandler handler;
+        private final Thread thread;
+        private volatile long sequence;
+        private volatile long lost;
+        private volatile boolean running = true;
+
+        private Subscription(String name, LifecycleEventHandler handler, long fromSequence) {
+            this.name = name;
+            this.handler = handler;
+            this.sequence = fromSequence;
+            this.thread = new Thread(this::run, "events-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        private void run() {
+            int idle = 0;
+            while (running) {
+                long next = sequence;
+                LifecycleEvent event = ring.get((int) next & mask);
+                if (event == null || event.getSequence() < next) {
+                    // Not published yet (or claimed but not stored yet)
+                    if (++idle > SPIN_TRIES) {
+                        LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    } else {
+                        Thread.onSpinWait();
+                    }
+                    continue;
+                }
+                idle = 0;
+                if (event.getSequence() > next) {
+                    // Lapped: resume half a ring behind the head so the next lap doesn't hit us immediately
+                    long resume = Math.max(next + 1, nextSequence.get() - capacity / 2);
+                    lost += resume - next;
+                    sequence = resume;
+                    notifyOverrun(resume - next);
+                    continue;
+                }
+                try {
+                    handler.onEvent(event);
+                } catch (RuntimeException e) {
+                    System.err.println("Error: event consumer " + name + " failed on " + event + ": " + e.getMessage());
+                }
+                sequence = next + 1;
+            }
+        }
+
+        private void notifyOverrun(long missed) {
+            try {
+                handler.onOverrun(missed);
+            } catch (RuntimeException e) {
+                System.err.println("Error: event consumer " + name + " failed on overrun: " + e.getMessage());
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        // Next sequence this consumer will read - save it to resume with subscribe(name, handler, sequence)
+        public long getSequence() {
+            return sequence;
+        }
+
+        public long getLag() {
+            return Math.max(0, nextSequence.get() - sequence);
+        }
+
+        public long getLostCount() {
+            return lost;
+        }
+
+        // Lets the consumer catch up to everything published so far; false on timeout
+        public boolean awaitCaughtUp(long timeout, TimeUnit unit) throws InterruptedException {
+            long target = nextSequence.get();
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            while (sequence < target) {
+                if (System.nanoTime() >= deadline || !running) {
+                    return false;
+                }
+                Thread.sleep(1);
+            }
+            return true;
+        }
+
+        @Override
+        public void close() {
+            running = false;
+            subscriptions.remove(this);
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(2));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package src.events;
+
+public interface LifecycleEventHandler {
+
+    void onEvent(LifecycleEvent event);
+
+    // Called when the producer lapped this consumer and `missed` events were overwritten unread
+    default void onOverrun(long missed) {
+        System.err.println("Warning: event consumer fell behind, " + missed + " events lost");
+    }
+}
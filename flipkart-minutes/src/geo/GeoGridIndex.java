@@ -0,0 +1,186 @@
+package src.geo;
+
+import src.models.GeoLocation;
+
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Uniform lat/lon grid of point ids. Writers serialize per id through ConcurrentHashMap.compute,
+// so partners can move concurrently with each other and with queries. Nearest-neighbour search
+// walks square rings of cells outward from the query cell and stops once the next ring cannot
+// beat the k-th best distance found so far.
+public class GeoGridIndex {
+
+    public static final double DEFAULT_CELL_DEGREES = 0.01; // ~1.1 km of latitude
+
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+    private static final int MAX_RINGS = 64;
+
+    private static final class Position {
+        final GeoLocation location;
+        final long cell;
+
+        Position(GeoLocation location, long cell) {
+            this.location = location;
+            this.cell = cell;
+        }
+    }
+
+    private static final class Candidate {
+        final double distanceKm;
+        final long id;
+
+        Candidate(double distanceKm, long id) {
+            this.distanceKm = distanceKm;
+            this.id = id;
+        }
+    }
+
+    private final double cellDegrees;
+    private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+    private final Map<Long, Position> positions = new ConcurrentHashMap<>();
+
+    public GeoGridIndex() {
+        this(DEFAULT_CELL_DEGREES);
+    }
+
+    public GeoGridIndex(double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+    }
+
+    // Insert or move
+    public void put(long id, GeoLocation location) {
+        positions.compute(id, (key, old) -> relocate(key, old, location));
+    }
+
+    // Move only if already indexed; returns false if the id is not in the index
+    public boolean moveIfPresent(long id, GeoLocation location) {
+        return positions.computeIfPresent(id, (key, old) -> relocate(key, old, location)) != null;
+    }
+
+    public boolean remove(long id) {
+        boolean[] removed = {false};
+        positions.computeIfPresent(id, (key, old) -> {
+            detach(old.cell, key);
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+
+    public boolean contains(long id) {
+        return positions.containsKey(id);
+    }
+
+    public GeoLocation locationOf(long id) {
+        Position position = positions.get(id);
+        return position == null ? null : position.location;
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    // Closest id, or -1 if the index is empty
+    public long nearest(GeoLocation from) {
+        long[] result = nearest(from, 1);
+        return result.length == 0 ? -1 : result[0];
+    }
+
+    // Up to k ids ordered by increasing distance
+    public long[] nearest(GeoLocation from, int k) {
+        if (k <= 0 || positions.isEmpty()) {
+            return new long[0];
+        }
+        // Max-heap on distance holding the best k so far
+        PriorityQueue<Candidate> best =
+                new PriorityQueue<>(k + 1, (a, b) -> Double.compare(b.distanceKm, a.distanceKm));
+
+        int centerLat = cellCoordinate(from.getLatitude());
+        int centerLon = cellCoordinate(from.getLongitude());
+        double cellKm = cellDegrees * KM_PER_DEGREE_LAT
+                * Math.max(0.05, Math.cos(Math.toRadians(Math.min(89.0, Math.abs(from.getLatitude()) + cellDegrees))));
+
+        for (int ring = 0; ring <= MAX_RINGS; ring++) {
+            // Every cell in this ring is at least (ring - 1) cell widths away
+            if (best.size() == k && (ring - 1) * cellKm > best.peek().distanceKm) {
+                break;
+            }
+            for (int dLat = -ring; dLat <= ring; dLat++) {
+                for (int dLon = -ring; dLon <= ring; dLon++) {
+                    if (Math.abs(dLat) != ring && Math.abs(dLon) != ring) {
+                        continue; // interior cells were scanned by earlier rings
+                    }
+                    Set<Long> members = cells.get(cellKey(centerLat + dLat, centerLon + dLon));
+                    if (members != null) {
+                        for (Long id : members) {
+                            offer(best, k, from, id);
+                        }
+                    }
+                }
+            }
+        }
+
+        if (best.isEmpty()) {
+            // Nothing within MAX_RINGS cells - fall back to a full scan
+            for (Long id : positions.keySet()) {
+                offer(best, k, from, id);
+            }
+        }
+
+        long[] result = new long[best.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = best.poll().id;
+        }
+        return result;
+    }
+
+    private void offer(PriorityQueue<Candidate> best, int k, GeoLocation from, long id) {
+        Position position = positions.get(id);
+        if (position == null) {
+            return;
+        }
+        double distance = from.distanceKm(position.location);
+        if (best.size() < k) {
+            best.add(new Candidate(distance, id));
+        } else if (distance < best.peek().distanceKm) {
+            best.poll();
+            best.add(new Candidate(distance, id));
+        }
+    }
+
+    private Position relocate(long id, Position old, GeoLocation location) {
+        long cell = cellKey(cellCoordinate(location.getLatitude()), cellCoordinate(location.getLongitude()));
+        if (old == null || old.cell != cell) {
+            // Add inside compute so a concurrent detach can't drop the set we are adding to
+            cells.compute(cell, (c, members) -> {
+                if (members == null) {
+                    members = ConcurrentHashMap.newKeySet();
+                }
+                members.add(id);
+                return members;
+            });
+            if (old != null) {
+                detach(old.cell, id);
+            }
+        }
+        return new Position(location, cell);
+    }
+
+    private void detach(long cell, long id) {
+        cells.computeIfPresent(cell, (c, members) -> {
+            members.remove(id);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    private int cellCoordinate(double degrees) {
+        return (int) Math.floor(degrees / cellDegrees);
+    }
+
+    private static long cellKey(int latCell, int lonCell) {
+        return ((long) latCell << 32) | (lonCell & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,21 @@
+package src.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Striped, so hot counters bumped from many threads don't contend on one cache line
+public class Counter {
+
+    private final LongAdder value = new LongAdder();
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long delta) {
+        value.add(delta);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+}
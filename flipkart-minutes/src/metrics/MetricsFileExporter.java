@@ -0,0 +1,53 @@
+package src.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Rewrites a text snapshot of the registry every interval. Temp file + atomic rename, so a
+// `watch cat` or scraper never reads a half-written file.
+public class MetricsFileExporter implements AutoCloseable {
+
+    private final MetricsRegistry registry;
+    private final Path file;
+    private final ScheduledExecutorService scheduler;
+
+    public MetricsFileExporter(MetricsRegistry registry, Path file, long interval, TimeUnit unit) {
+        this.registry = registry;
+        this.file = file;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-exporter");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::exportQuietly, interval, interval, unit);
+    }
+
+    public void export() throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = directory.resolve(file.getFileName() + ".tmp");
+        Files.write(temp, registry.snapshot().getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void exportQuietly() {
+        try {
+            export();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error: metrics export to " + file + " failed: " + e.getMessage());
+        }
+    }
+
+    // Stops the schedule and writes one final snapshot
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        exportQuietly();
+    }
+}
@@ -0,0 +1,71 @@
+package src.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+
+// Named counters, histograms and gauges. Callers look a metric up once and keep the handle, so
+// the hot path is only the metric's own lock-free update. Names are sorted in snapshots.
+public class MetricsRegistry {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<String, Counter> counters = new ConcurrentSkipListMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentSkipListMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentSkipListMap<>();
+    private final Map<String, String> units = new ConcurrentHashMap<>();
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new Counter());
+    }
+
+    // unit is only a label for the snapshot ("ns", "ms")
+    public LatencyHistogram histogram(String name, String unit) {
+        units.putIfAbsent(name, unit);
+        return histograms.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    // Sampled when a snapshot is taken; the supplier must be cheap and thread-safe
+    public void gauge(String name, LongSupplier supplier) {
+        gauges.put(name, supplier);
+    }
+
+    // Plain text, one metric per line:
+    //   counter orders.created 42
+    //   gauge pendingOrders 3
+    //   histogram createOrder count=42 mean=1200.0 p50=1023 p90=2047 p99=4095 p99.9=8191 max=9000 ns
+    public String snapshot() {
+        StringBuilder out = new StringBuilder();
+        out.append("# flipkart-minutes metrics at ").append(System.currentTimeMillis()).append('\n');
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            out.append("counter ").append(entry.getKey()).append(' ').append(entry.getValue().get()).append('\n');
+        }
+        for (Map.Entry<String, LongSupplier> entry : gauges.entrySet()) {
+            long value;
+            try {
+                value = entry.getValue().getAsLong();
+            } catch (RuntimeException e) {
+                continue;
+            }
+            out.append("gauge ").append(entry.getKey()).append(' ').append(value).append('\n');
+        }
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            long[] values = histogram.percentiles(PERCENTILES);
+            out.append("histogram ").append(entry.getKey())
+                    .append(" count=").append(histogram.getCount())
+                    .append(String.format(" mean=%.1f", histogram.getMean()));
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                out.append(" p").append(formatPercentile(PERCENTILES[i])).append('=').append(values[i]);
+            }
+            out.append(" max=").append(histogram.getMax())
+                    .append(' ').append(units.getOrDefault(entry.getKey(), "")).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
@@ -0,0 +1,209 @@
+package src.migration;
+
+import src.codec.CustomerRecordCodec;
+import src.codec.OrderRecordCodec;
+import src.codec.PartnerRecordCodec;
+import src.codec.RecordCodec;
+import src.enums.OrderStatus;
+import src.enums.PartnerStatus;
+import src.models.Customer;
+import src.models.DeliveryPartner;
+import src.models.Order;
+import src.persistence.SnapshotStore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// One-off conversion of the legacy per-entity files (data/<entity>/<id>.dat Java serialization,
+// <id>.json pretty-printed JSON) into a durable-store snapshot per entity type, so the service
+// boots straight from the result:
+//   java -cp out src.migration.LegacyDataMigrator [sourceDir=data] [targetDir=data/store]
+//   java -Dflipkart.data.dir=data/store -cp out Main
+// When an id exists in both forms the .json wins (the old repository wrote it when migrating
+// the .dat). Source files are left untouched. Fields the current models no longer have
+// (registeredAt, joinedAt) are dropped.
+public class LegacyDataMigrator {
+
+    private static final String LEGACY_PACKAGE = "src.models.";
+    private static final String SHADOW_PACKAGE = "src.migration.legacy.";
+
+    public static void main(String[] args) throws IOException {
+        Path source = Paths.get(args.length > 0 ? args[0] : "data");
+        Path target = args.length > 1 ? Paths.get(args[1]) : source.resolve("store");
+        Files.createDirectories(target);
+
+        Map<Long, Customer> customers = load(source.resolve("customers"),
+                LegacyDataMigrator::customerFromJson, LegacyDataMigrator::customerFromLegacy);
+        Map<Long, DeliveryPartner> partners = load(source.resolve("partners"),
+                LegacyDataMigrator::partnerFromJson, LegacyDataMigrator::partnerFromLegacy);
+        Map<Long, Order> orders = load(source.resolve("orders"),
+                LegacyDataMigrator::orderFromJson, LegacyDataMigrator::orderFromLegacy);
+
+        write(target.resolve("customers"), new CustomerRecordCodec(), customers);
+        write(target.resolve("partners"), new PartnerRecordCodec(), partners);
+        write(target.resolve("orders"), new OrderRecordCodec(), orders);
+    }
+
+    interface JsonMapper<T> {
+        T map(Map<String, Object> json);
+    }
+
+    interface LegacyMapper<T> {
+        T map(Object legacy);
+    }
+
+    private static <T> Map<Long, T> load(Path directory, JsonMapper<T> fromJson,
+                                         LegacyMapper<T> fromLegacy) throws IOException {
+        Map<Long, T> fromDat = new TreeMap<>();
+        Map<Long, T> result = new TreeMap<>();
+        if (!Files.isDirectory(directory)) {
+            return result;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    if (name.endsWith(".json")) {
+                        String json = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+                        result.put(idOf(name), fromJson.map(LegacyJson.parseObject(json)));
+                    } else if (name.endsWith(".dat")) {
+                        fromDat.put(idOf(name), fromLegacy.map(readSerialized(file)));
+                    }
+                } catch (RuntimeException | IOException | ClassNotFoundException e) {
+                    System.err.println("Warning: skipping " + file + ": " + e.getMessage());
+                }
+            }
+        }
+        fromDat.forEach(result::putIfAbsent);
+        return result;
+    }
+
+    // Same layout DurableStore reads: <storeDir>/snapshots, covering log sequence 0 (empty WAL)
+    private static <T> void write(Path storeDir, RecordCodec<T> codec, Map<Long, T> entities) {
+        Map<String, T> byId = new LinkedHashMap<>();
+        entities.forEach((id, entity) -> byId.put(String.valueOf(id), entity));
+        new SnapshotStore<>(storeDir.resolve("snapshots"), codec).write(0, byId);
+        System.out.println("✓ Migrated " + byId.size() + " " + codec.entityType() + " records -> " + storeDir);
+    }
+
+    private static long idOf(String fileName) {
+        return Long.parseLong(fileName.substring(0, fileName.indexOf('.')));
+    }
+
+    // Resolve the old src.models classes onto same-named shadows in src.migration.legacy
+    private static Object readSerialized(Path file) throws IOException, ClassNotFoundException {
+        try (InputStream in = Files.newInputStream(file);
+             ObjectInputStream objects = new ObjectInputStream(in) {
+                 @Override
+                 protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+                     String name = desc.getName();
+                     if (name.startsWith(LEGACY_PACKAGE)) {
+                         return Class.forName(SHADOW_PACKAGE + name.substring(LEGACY_PACKAGE.length()));
+                     }
+                     return super.resolveClass(desc);
+                 }
+             }) {
+            return objects.readObject();
+        }
+    }
+
+    private static Customer customerFromLegacy(Object value) {
+        src.migration.legacy.Customer legacy = (src.migration.legacy.Customer) value;
+        Customer customer = new Customer(legacy.customerId, legacy.name);
+        customer.setPhone(legacy.phone);
+        customer.setEmail(legacy.email);
+        return customer;
+    }
+
+    private static Customer customerFromJson(Map<String, Object> json) {
+        Customer customer = new Customer(longField(json, "customerId"), (String) json.get("name"));
+        customer.setPhone((String) json.get("phone"));
+        customer.setEmail((String) json.get("email"));
+        return customer;
+    }
+
+    private static DeliveryPartner partnerFromLegacy(Object value) {
+        src.migration.legacy.DeliveryPartner legacy = (src.migration.legacy.DeliveryPartner) value;
+        DeliveryPartner partner = new DeliveryPartner(legacy.partnerId, legacy.name);
+        partner.setPhone(legacy.phone);
+        partner.setVehicleNumber(legacy.vehicleNumber);
+        if (legacy.status != null) {
+            partner.setStatus(PartnerStatus.valueOf(legacy.status.name()));
+        }
+        partner.setCurrentOrderId(legacy.currentOrderId);
+        partner.restoreStats(legacy.totalDeliveries, legacy.totalRating, legacy.ratingCount);
+        return partner;
+    }
+
+    private static DeliveryPartner partnerFromJson(Map<String, Object> json) {
+        DeliveryPartner partner = new DeliveryPartner(longField(json, "partnerId"), (String) json.get("name"));
+        partner.setPhone((String) json.get("phone"));
+        partner.setVehicleNumber((String) json.get("vehicleNumber"));
+        if (json.get("status") != null) {
+            partner.setStatus(PartnerStatus.valueOf((String) json.get("status")));
+        }
+        partner.setCurrentOrderId(nullableLong(json, "currentOrderId"));
+        Object totalRating = json.get("totalRating");
+        partner.restoreStats((int) longField(json, "totalDeliveries"),
+                totalRating == null ? 0.0 : ((Number) totalRating).doubleValue(),
+                (int) longField(json, "ratingCount"));
+        return partner;
+    }
+
+    private static Order orderFromLegacy(Object value) {
+        src.migration.legacy.Order legacy = (src.migration.legacy.Order) value;
+        Order order = new Order(legacy.orderId, legacy.customerId, legacy.itemName);
+        if (legacy.status != null) {
+            order.setStatus(OrderStatus.valueOf(legacy.status.name()));
+        }
+        order.setAssignedPartnerId(legacy.assignedPartnerId);
+        if (legacy.createdAt != null) {
+            order.setCreatedAt(legacy.createdAt);
+        }
+        order.setPickedUpAt(legacy.pickedUpAt);
+        order.setDeliveredAt(legacy.deliveredAt);
+        return order;
+    }
+
+    private static Order orderFromJson(Map<String, Object> json) {
+        Order order = new Order(longField(json, "orderId"), longField(json, "customerId"),
+                (String) json.get("itemName"));
+        if (json.get("status") != null) {
+            order.setStatus(OrderStatus.valueOf((String) json.get("status")));
+        }
+        order.setAssignedPartnerId(nullableLong(json, "assignedPartnerId"));
+        LocalDateTime createdAt = time(json, "createdAt");
+        if (createdAt != null) {
+            order.setCreatedAt(createdAt);
+        }
+        order.setPickedUpAt(time(json, "pickedUpAt"));
+        order.setDeliveredAt(time(json, "deliveredAt"));
+        return order;
+    }
+
+    private static long longField(Map<String, Object> json, String key) {
+        Long value = nullableLong(json, key);
+        return value == null ? 0L : value;
+    }
+
+    private static Long nullableLong(Map<String, Object> json, String key) {
+        Object value = json.get(key);
+        return value == null ? null : ((Number) value).longValue();
+    }
+
+    private static LocalDateTime time(Map<String, Object> json, String key) {
+        Object value = json.get(key);
+        return value == null ? null : LocalDateTime.parse((String) value);
+    }
+}
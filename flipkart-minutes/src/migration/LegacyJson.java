@@ -0,0 +1,147 @@
+package src.migration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Just enough JSON for the flat entity files under data/: one object of string, number,
+// boolean and null values. Nested structures are rejected.
+final class LegacyJson {
+
+    private final String text;
+    private int position;
+
+    private LegacyJson(String text) {
+        this.text = text;
+    }
+
+    static Map<String, Object> parseObject(String text) {
+        LegacyJson parser = new LegacyJson(text);
+        Map<String, Object> result = parser.object();
+        parser.skipWhitespace();
+        if (parser.position != text.length()) {
+            throw parser.error("Trailing content");
+        }
+        return result;
+    }
+
+    private Map<String, Object> object() {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        expect('{');
+        skipWhitespace();
+        if (peek() == '}') {
+            position++;
+            return fields;
+        }
+        while (true) {
+            skipWhitespace();
+            String key = string();
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+            fields.put(key, value());
+            skipWhitespace();
+            char c = next();
+            if (c == '}') {
+                return fields;
+            }
+            if (c != ',') {
+                throw error("Expected ',' or '}'");
+            }
+        }
+    }
+
+    private Object value() {
+        char c = peek();
+        if (c == '"') {
+            return string();
+        }
+        if (text.startsWith("null", position)) {
+            position += 4;
+            return null;
+        }
+        if (text.startsWith("true", position)) {
+            position += 4;
+            return Boolean.TRUE;
+        }
+        if (text.startsWith("false", position)) {
+            position += 5;
+            return Boolean.FALSE;
+        }
+        if (c == '-' || Character.isDigit(c)) {
+            return number();
+        }
+        throw error("Unsupported value");
+    }
+
+    private Object number() {
+        int start = position;
+        while (position < text.length() && "+-.eE0123456789".indexOf(text.charAt(position)) >= 0) {
+            position++;
+        }
+        String literal = text.substring(start, position);
+        if (literal.indexOf('.') < 0 && literal.indexOf('e') < 0 && literal.indexOf('E') < 0) {
+            return Long.parseLong(literal);
+        }
+        return Double.parseDouble(literal);
+    }
+
+    private String string() {
+        expect('"');
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            char c = next();
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            char escaped = next();
+            switch (escaped) {
+                case 'n': sb.append('\n'); break;
+                case 't': sb.append('\t'); break;
+                case 'r': sb.append('\r'); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'u':
+                    if (position + 4 > text.length()) {
+                        throw error("Bad unicode escape");
+                    }
+                    sb.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                    position += 4;
+                    break;
+                default: sb.append(escaped);
+            }
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    private void expect(char expected) {
+        if (next() != expected) {
+            throw error("Expected '" + expected + "'");
+        }
+    }
+
+    private char peek() {
+        if (position >= text.length()) {
+            throw error("Unexpected end of input");
+        }
+        return text.charAt(position);
+    }
+
+    private char next() {
+        char c = peek();
+        position++;
+        return c;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at offset " + position);
+    }
+}
@@ -0,0 +1,16 @@
+package src.migration.legacy;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// Field-for-field shape of the old Serializable src.models.Customer, so ObjectInputStream can
+// read data/customers/*.dat. Deserialization matches classes by simple name and fields by name.
+public class Customer implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public long customerId;
+    public String name;
+    public String phone;
+    public String email;
+    public LocalDateTime registeredAt;
+}
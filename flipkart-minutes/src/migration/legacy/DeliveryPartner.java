@@ -0,0 +1,20 @@
+package src.migration.legacy;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// Shape of the old Serializable src.models.DeliveryPartner (see Customer)
+public class DeliveryPartner implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public long partnerId;
+    public String name;
+    public String phone;
+    public String vehicleNumber;
+    public PartnerStatus status;
+    public Long currentOrderId;
+    public int totalDeliveries;
+    public double totalRating;
+    public int ratingCount;
+    public LocalDateTime joinedAt;
+}
@@ -0,0 +1,18 @@
+package src.migration.legacy;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// Shape of the old Serializable src.models.Order (see Customer)
+public class Order implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public long orderId;
+    public long customerId;
+    public String itemName;
+    public OrderStatus status;
+    public Long assignedPartnerId;
+    public LocalDateTime createdAt;
+    public LocalDateTime pickedUpAt;
+    public LocalDateTime deliveredAt;
+}
@@ -0,0 +1,10 @@
+package src.migration.legacy;
+
+// Old src.models.OrderStatus; enum constants deserialize by name
+public enum OrderStatus {
+    PENDING,
+    ASSIGNED,
+    PICKED_UP,
+    DELIVERED,
+    CANCELLED
+}
@@ -0,0 +1,8 @@
+package src.migration.legacy;
+
+// Old src.models.PartnerStatus; enum constants deserialize by name
+public enum PartnerStatus {
+    AVAILABLE,
+    BUSY,
+    OFFLINE
+}
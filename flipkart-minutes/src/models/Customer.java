@@ -34,6 +34,10 @@ public class Customer {
         this.phone = phone;
     }
 
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
     @Override
     public String toString() {
         return String.format("Customer[ID=%d, Name=%s, Phone=%s]",
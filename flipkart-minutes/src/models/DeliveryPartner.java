@@ -9,17 +9,13 @@ public class DeliveryPartner {
     private String vehicleNumber;
     private PartnerStatus status;
     private Long currentOrderId;
-    private int totalDeliveries;
-    private double totalRating;
-    private int ratingCount;
+    private volatile GeoLocation location;
+    private final PartnerStats stats = new PartnerStats();
 
     public DeliveryPartner(long partnerId, String name) {
         this.partnerId = partnerId;
         this.name = name;
         this.status = PartnerStatus.AVAILABLE;
-        this.totalDeliveries = 0;
-        this.totalRating = 0.0;
-        this.ratingCount = 0;
     }
 
     public long getPartnerId() {
@@ -62,32 +58,51 @@ public class DeliveryPartner {
         this.currentOrderId = orderId;
     }
 
+    public GeoLocation getLocation() {
+        return location;
+    }
+
+    public void setLocation(GeoLocation location) {
+        this.location = location;
+    }
+
+    // Lock-free counters; safe to read and update without holding the partner lock
+    public PartnerStats getStats() {
+        return stats;
+    }
+
     public int getTotalDeliveries() {
-        return totalDeliveries;
+        return stats.getTotalDeliveries();
     }
 
     public void incrementDeliveries() {
-        this.totalDeliveries++;
+        stats.incrementDeliveries();
     }
 
     public void addRating(int rating) {
-        if (rating >= 1 && rating <= 5) {
-            this.totalRating += rating;
-            this.ratingCount++;
-        }
+        stats.addRating(rating);
     }
 
     public int getRatingCount() {
-        return ratingCount;
+        return stats.getRatingCount();
+    }
+
+    public double getTotalRating() {
+        return stats.getTotalRating();
+    }
+
+    // Rehydrate counters when loading a persisted partner
+    public void restoreStats(int totalDeliveries, double totalRating, int ratingCount) {
+        stats.restore(totalDeliveries, totalRating, ratingCount);
     }
 
     public double getAverageRating() {
-        return ratingCount == 0 ? 0.0 : totalRating / ratingCount;
+        return stats.getAverageRating();
     }
 
     @Override
     public String toString() {
         return String.format("Partner[ID=%d, Name=%s, Status=%s, Deliveries=%d, Rating=%.2f]",
-                partnerId, name, status, totalDeliveries, getAverageRating());
+                partnerId, name, status, getTotalDeliveries(), getAverageRating());
     }
 }
\ No newline at end of file
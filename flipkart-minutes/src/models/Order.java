@@ -1,15 +1,20 @@
 package src.models;
 
+import src.enums.OrderPriority;
 import src.enums.OrderStatus;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
 public class Order {
     private long orderId;
     private long customerId;
     private String itemName;
     private OrderStatus status;
+    private OrderPriority priority = OrderPriority.STANDARD;
     private Long assignedPartnerId;
+    private GeoLocation pickupLocation;
+    private GeoLocation dropLocation;
     private LocalDateTime createdAt;
     private LocalDateTime pickedUpAt;
     private LocalDateTime deliveredAt;
@@ -22,6 +27,13 @@ public class Order {
         this.createdAt = LocalDateTime.now();
     }
 
+    public Order(long orderId, long customerId, String itemName,
+                 GeoLocation pickupLocation, GeoLocation dropLocation) {
+        this(orderId, customerId, itemName);
+        this.pickupLocation = pickupLocation;
+        this.dropLocation = dropLocation;
+    }
+
     public long getOrderId() {
         return orderId;
     }
@@ -42,6 +54,21 @@ public class Order {
         this.status = status;
     }
 
+    public OrderPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(OrderPriority priority) {
+        this.priority = priority;
+    }
+
+    // When this order should have a partner by: creation time plus its priority class window.
+    // Epoch millis (UTC), the key pending orders are served by.
+    public long getAssignDeadlineMillis() {
+        LocalDateTime created = createdAt != null ? createdAt : LocalDateTime.now();
+        return created.toInstant(ZoneOffset.UTC).toEpochMilli() + priority.getAssignWithin().toMillis();
+    }
+
     public Long getAssignedPartnerId() {
         return assignedPartnerId;
     }
@@ -50,10 +77,30 @@ public class Order {
         this.assignedPartnerId = partnerId;
     }
 
+    public GeoLocation getPickupLocation() {
+        return pickupLocation;
+    }
+
+    public void setPickupLocation(GeoLocation pickupLocation) {
+        this.pickupLocation = pickupLocation;
+    }
+
+    public GeoLocation getDropLocation() {
+        return dropLocation;
+    }
+
+    public void setDropLocation(GeoLocation dropLocation) {
+        this.dropLocation = dropLocation;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
 
+    public void setCreatedAt(LocalDateTime time) {
+        this.createdAt = time;
+    }
+
     public LocalDateTime getPickedUpAt() {
         return pickedUpAt;
     }
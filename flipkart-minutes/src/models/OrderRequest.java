@@ -0,0 +1,45 @@
+package src.models;
+
+import src.enums.OrderPriority;
+
+// One entry of a bulk order feed (see OrderService.createOrders)
+public class OrderRequest {
+    private final long customerId;
+    private final String itemName;
+    private final GeoLocation pickupLocation;
+    private final GeoLocation dropLocation;
+    private final OrderPriority priority;
+
+    public OrderRequest(long customerId, String itemName) {
+        this(customerId, itemName, null, null, OrderPriority.STANDARD);
+    }
+
+    public OrderRequest(long customerId, String itemName,
+                        GeoLocation pickupLocation, GeoLocation dropLocation, OrderPriority priority) {
+        this.customerId = customerId;
+        this.itemName = itemName;
+        this.pickupLocation = pickupLocation;
+        this.dropLocation = dropLocation;
+        this.priority = priority;
+    }
+
+    public long getCustomerId() {
+        return customerId;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public GeoLocation getPickupLocation() {
+        return pickupLocation;
+    }
+
+    public GeoLocation getDropLocation() {
+        return dropLocation;
+    }
+
+    public OrderPriority getPriority() {
+        return priority;
+    }
+}
@@ -0,0 +1,87 @@
+package src.models;
+
+import src.metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lock-free partner counters. Rating count and rating sum share one 64-bit word (count in the
+// high half, sum in the low half), so a single getAndAdd records a rating and a single read
+// gives a consistent average - no torn (total, count) pair.
+public class PartnerStats {
+
+    private static final long COUNT_UNIT = 1L << 32;
+    private static final long SUM_MASK = COUNT_UNIT - 1;
+
+    // Delivery durations in seconds, up to ~36 hours at ~12% resolution (~1 KB per partner)
+    private static final long MAX_DELIVERY_SECONDS = 1L << 17;
+    private static final int DELIVERY_SUB_BUCKET_BITS = 3;
+
+    private final AtomicLong ratings = new AtomicLong();
+    private final AtomicLong deliveries = new AtomicLong();
+    private volatile LatencyHistogram deliveryTimes;
+
+    public void incrementDeliveries() {
+        deliveries.incrementAndGet();
+    }
+
+    public int getTotalDeliveries() {
+        return (int) deliveries.get();
+    }
+
+    // Ratings outside 1..5 are ignored
+    public void addRating(int rating) {
+        if (rating >= 1 && rating <= 5) {
+            ratings.getAndAdd(COUNT_UNIT + rating);
+        }
+    }
+
+    public int getRatingCount() {
+        return (int) (ratings.get() >>> 32);
+    }
+
+    public double getTotalRating() {
+        return ratings.get() & SUM_MASK;
+    }
+
+    public double getAverageRating() {
+        long packed = ratings.get();
+        long count = packed >>> 32;
+        return count == 0 ? 0.0 : (double) (packed & SUM_MASK) / count;
+    }
+
+    public void recordDeliveryTime(long seconds) {
+        deliveryHistogram().record(seconds);
+    }
+
+    // Percentile (0-100) of delivery durations in seconds; 0 if nothing recorded yet
+    public long getDeliveryTimePercentile(double percentile) {
+        LatencyHistogram histogram = deliveryTimes;
+        return histogram == null ? 0 : histogram.percentile(percentile);
+    }
+
+    public long getDeliveryTimeCount() {
+        LatencyHistogram histogram = deliveryTimes;
+        return histogram == null ? 0 : histogram.getCount();
+    }
+
+    // Rehydrate from persisted totals; ratings are whole stars so the sum is integral
+    public void restore(int totalDeliveries, double totalRating, int ratingCount) {
+        deliveries.set(totalDeliveries);
+        ratings.set(((long) ratingCount << 32) | (Math.round(totalRating) & SUM_MASK));
+    }
+
+    // Allocated on first delivery so idle partners don't carry a histogram
+    private LatencyHistogram deliveryHistogram() {
+        LatencyHistogram histogram = deliveryTimes;
+        if (histogram == null) {
+            synchronized (this) {
+                histogram = deliveryTimes;
+                if (histogram == null) {
+                    histogram = new LatencyHistogram(MAX_DELIVERY_SECONDS, DELIVERY_SUB_BUCKET_BITS);
+                    deliveryTimes = histogram;
+                }
+            }
+        }
+        return histogram;
+    }
+}
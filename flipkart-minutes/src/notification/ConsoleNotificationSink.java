@@ -0,0 +1,26 @@
+package src.notification;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.function.Function;
+
+public class ConsoleNotificationSink implements NotificationSink {
+
+    private final Function<Notification, String> formatter;
+
+    public ConsoleNotificationSink(Function<Notification, String> formatter) {
+        this.formatter = formatter;
+    }
+
+    @Override
+    public void deliver(NotificationChannel channel, List<Notification> batch) {
+        PrintStream stream = channel == NotificationChannel.ERROR ? System.err : System.out;
+        StringBuilder lines = new StringBuilder();
+        for (Notification notification : batch) {
+            lines.append(formatter.apply(notification)).append(System.lineSeparator());
+        }
+        // One write per batch instead of one println per message
+        stream.print(lines);
+        stream.flush();
+    }
+}
@@ -0,0 +1,66 @@
+package src.notification;
+
+public class Notification {
+    private final NotificationChannel channel;
+    private final long recipientId;
+    private final long createdAtMillis;
+    private final String message;
+    // Only the newest folded-in message is kept, so a hot recipient can't grow the text without bound
+    private volatile String latestMessage;
+    private volatile int coalescedCount;
+    private boolean claimed;
+
+    public Notification(NotificationChannel channel, long recipientId, String message) {
+        this.channel = channel;
+        this.recipientId = recipientId;
+        this.message = message;
+        this.createdAtMillis = System.currentTimeMillis();
+    }
+
+    public NotificationChannel getChannel() {
+        return channel;
+    }
+
+    public long getRecipientId() {
+        return recipientId;
+    }
+
+    // The original message and, when others were folded in, the newest one plus how many were skipped
+    public String getMessage() {
+        int folded = coalescedCount;
+        if (folded == 0) {
+            return message;
+        }
+        if (folded == 1) {
+            return message + " | " + latestMessage;
+        }
+        return message + " | (+" + (folded - 1) + " more) | " + latestMessage;
+    }
+
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    // Number of later messages folded into this one under COALESCE
+    public int getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    String recipientKey() {
+        return channel.name() + ':' + recipientId;
+    }
+
+    // Fold a later message in; fails once the drainer has claimed this notification for delivery
+    synchronized boolean tryCoalesce(String laterMessage) {
+        if (claimed) {
+            return false;
+        }
+        this.latestMessage = laterMessage;
+        this.coalescedCount++;
+        return true;
+    }
+
+    synchronized void claim() {
+        this.claimed = true;
+    }
+}
@@ -0,0 +1,8 @@
+package src.notification;
+
+public enum NotificationChannel {
+    CUSTOMER,
+    PARTNER,
+    SYSTEM,
+    ERROR
+}
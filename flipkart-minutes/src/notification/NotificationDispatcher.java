@@ -0,0 +1,182 @@
+package src.notification;
+
+import src.enums.ExecutionMode;
+import src.util.ExecutionThreads;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded multi-producer queue drained by one background thread. Producers only enqueue;
+// formatting, lookups and sink I/O happen on the drainer, batched per channel.
+public class NotificationDispatcher {
+
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private final BlockingQueue<Notification> queue;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+    private final List<NotificationSink> sinks = new CopyOnWriteArrayList<>();
+
+    // COALESCE only: newest queued notification per recipient (a hint; claim() is authoritative)
+    private final Map<String, Notification> queuedByRecipient = new ConcurrentHashMap<>();
+
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    private final Thread drainer;
+    private volatile boolean running = true;
+
+    public NotificationDispatcher(int capacity, OverflowPolicy overflowPolicy) {
+        this(capacity, overflowPolicy, DEFAULT_BATCH_SIZE);
+    }
+
+    public NotificationDispatcher(int capacity, OverflowPolicy overflowPolicy, int batchSize) {
+        this(capacity, overflowPolicy, batchSize, ExecutionMode.PLATFORM);
+    }
+
+    public NotificationDispatcher(int capacity, OverflowPolicy overflowPolicy, int batchSize,
+                                  ExecutionMode executionMode) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.batchSize = batchSize;
+
+        this.drainer = ExecutionThreads.start(executionMode, "notification-dispatcher", true, this::drainLoop);
+    }
+
+    public void addSink(NotificationSink sink) {
+        sinks.add(sink);
+    }
+
+    public void removeSink(NotificationSink sink) {
+        sinks.remove(sink);
+    }
+
+    public void dispatch(Notification notification) {
+        if (!running) {
+            dropped.incrementAndGet();
+            return;
+        }
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    queue.put(notification);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.incrementAndGet();
+                }
+                break;
+            case DROP_OLDEST:
+                offerDroppingOldest(notification);
+                break;
+            case COALESCE:
+                offerCoalescing(notification);
+                break;
+        }
+    }
+
+    public long getDispatchedCount() {
+        return dispatched.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    // Stop accepting, deliver what is already queued, then stop the drainer
+    public void shutdown(long timeout, TimeUnit unit) {
+        running = false;
+        drainer.interrupt();
+        try {
+            drainer.join(unit.toMillis(timeout));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void offerDroppingOldest(Notification notification) {
+        while (!queue.offer(notification)) {
+            Notification evicted = queue.poll();
+            if (evicted != null) {
+                // Keep COALESCE from folding text into a notification that will never be delivered
+                evicted.claim();
+                dropped.incrementAndGet();
+            }
+        }
+    }
+
+    private void offerCoalescing(Notification notification) {
+        String key = notification.recipientKey();
+        if (!queue.offer(notification)) {
+            Notification queued = queuedByRecipient.get(key);
+            if (queued != null) {
+                if (queued.tryCoalesce(notification.getMessage())) {
+                    coalesced.incrementAndGet();
+                    return;
+                }
+                // Already handed to the drainer - forget it
+                queuedByRecipient.remove(key, queued);
+            }
+            offerDroppingOldest(notification);
+        }
+        queuedByRecipient.put(key, notification);
+    }
+
+    private void drainLoop() {
+        List<Notification> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Notification first = running ? queue.take() : queue.poll();
+                if (first == null) {
+                    break;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                // shutdown() interrupts to wake us; fall through and drain the rest
+                continue;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            deliver(batch);
+            batch.clear();
+        }
+    }
+
+    private void deliver(List<Notification> batch) {
+        Map<NotificationChannel, List<Notification>> byChannel = new EnumMap<>(NotificationChannel.class);
+        for (Notification notification : batch) {
+            if (overflowPolicy == OverflowPolicy.COALESCE) {
+                // After claim() no producer can fold more text in, so the message is final
+                notification.claim();
+                queuedByRecipient.remove(notification.recipientKey(), notification);
+            }
+            byChannel.computeIfAbsent(notification.getChannel(), c -> new ArrayList<>()).add(notification);
+        }
+        for (Map.Entry<NotificationChannel, List<Notification>> entry : byChannel.entrySet()) {
+            for (NotificationSink sink : sinks) {
+                try {
+                    sink.deliver(entry.getKey(), entry.getValue());
+                } catch (RuntimeException e) {
+                    System.err.println("Error: notification sink failed: " + e.getMessage());
+                }
+            }
+        }
+        dispatched.addAndGet(batch.size());
+    }
+}
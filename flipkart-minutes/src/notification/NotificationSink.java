@@ -0,0 +1,9 @@
+package src.notification;
+
+import java.util.List;
+
+// Destination for dispatched notifications (console, SMS gateway, push service...).
+// Called from the dispatcher thread only, one batch per channel.
+public interface NotificationSink {
+    void deliver(NotificationChannel channel, List<Notification> batch);
+}
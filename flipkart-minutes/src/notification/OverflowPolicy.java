@@ -0,0 +1,12 @@
+package src.notification;
+
+// What a producer does when the dispatch queue is full
+public enum OverflowPolicy {
+    // Wait for the drainer to make room
+    BLOCK,
+    // Evict the oldest queued notification
+    DROP_OLDEST,
+    // Fold the message into a notification already queued for the same recipient;
+    // fall back to DROP_OLDEST when the recipient has nothing queued
+    COALESCE
+}
@@ -0,0 +1,174 @@
+package src.persistence;
+
+import src.codec.RecordBytes;
+import src.codec.RecordCodec;
+import src.util.FileUtil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+// One file per entity type for bulk export (read back with read()), replacing one-small-file-per-entity scans.
+//
+// Layout: int magic, byte version, byte type length, UTF-8 entity type,
+//         records [int length][standalone record bytes]..., then [int 0][long record count]
+// Records are written with gathering writes straight from the encoded bytes and read back from a
+// read-only mapping.
+public final class BulkSegment {
+
+    static final int MAGIC = 0x464D5347; // "FMSG"
+    static final int FORMAT_VERSION = 1;
+
+    private static final int BATCH_RECORDS = 64;
+
+    // Anything that can walk its entities without building a list, e.g. repository::forEach
+    public interface Source<T> {
+        void forEach(Consumer<T> action);
+    }
+
+    private BulkSegment() {
+    }
+
+    // Writes a complete segment to any gathering channel: FileChannel, SocketChannel, Pipe.SinkChannel
+    public static <T> long write(GatheringByteChannel out, RecordCodec<T> codec, Source<T> source) throws IOException {
+        byte[] type = codec.entityType().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer header = ByteBuffer.allocate(4 + 1 + 1 + type.length);
+        header.putInt(MAGIC).put((byte) FORMAT_VERSION).put((byte) type.length).put(type).flip();
+        writeFully(out, new ByteBuffer[]{header}, 1);
+
+        BatchWriter<T> batch = new BatchWriter<>(out, codec);
+        try {
+            source.forEach(batch);
+        } catch (PersistenceException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+        batch.flush();
+
+        ByteBuffer trailer = ByteBuffer.allocate(4 + 8);
+        trailer.putInt(0).putLong(batch.count).flip();
+        writeFully(out, new ByteBuffer[]{trailer}, 1);
+        return batch.count;
+    }
+
+    // Temp file + fsync + atomic rename, so a reader never sees a half-written export
+    public static <T> long export(Path file, RecordCodec<T> codec, Source<T> source) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = directory.resolve(file.getFileName() + ".tmp");
+        long count;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            count = write(channel, codec, source);
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count;
+    }
+
+    // Decodes every record from a read-only mapping; returns the record count
+    public static <T> long read(Path file, RecordCodec<T> codec, Consumer<T> sink) throws IOException {
+        MappedByteBuffer buffer = FileUtil.mapReadOnly(file);
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new PersistenceException("Not a bulk segment: " + file);
+            }
+            int version = buffer.get();
+            if (version != FORMAT_VERSION) {
+                throw new PersistenceException("Unsupported bulk segment version " + version + " in " + file);
+            }
+            byte[] type = new byte[buffer.get() & 0xFF];
+            buffer.get(type);
+            String entityType = new String(type, StandardCharsets.UTF_8);
+            if (!entityType.equals(codec.entityType())) {
+                throw new PersistenceException("Segment " + file + " holds " + entityType + ", expected " + codec.entityType());
+            }
+
+            byte[] scratch = new byte[256];
+            long count = 0;
+            while (true) {
+                int length = buffer.getInt();
+                if (length == 0) {
+                    break;
+                }
+                if (length < 0 || length > buffer.remaining()) {
+                    throw new PersistenceException("Corrupt record length " + length + " in " + file);
+                }
+                if (length > scratch.length) {
+                    scratch = new byte[Math.max(length, scratch.length * 2)];
+                }
+                buffer.get(scratch, 0, length);
+                sink.accept(RecordBytes.decode(codec, scratch, 0, length));
+                count++;
+            }
+            long expected = buffer.getLong();
+            if (expected != count) {
+                throw new PersistenceException("Segment " + file + " declares " + expected + " records, found " + count);
+            }
+            return count;
+        } catch (java.nio.BufferUnderflowException e) {
+            throw new PersistenceException("Truncated bulk segment: " + file, e);
+        }
+    }
+
+    private static void writeFully(GatheringByteChannel out, ByteBuffer[] buffers, int length) throws IOException {
+        int first = 0;
+        while (first < length) {
+            out.write(buffers, first, length - first);
+            while (first < length && !buffers[first].hasRemaining()) {
+                first++;
+            }
+        }
+    }
+
+    // Buffers (length prefix, payload) pairs and flushes them with one gathering write per batch.
+    // The source callback can't throw IOException, so it travels wrapped and is unwrapped in write().
+    private static final class BatchWriter<T> implements Consumer<T> {
+        private final GatheringByteChannel out;
+        private final RecordCodec<T> codec;
+        private final ByteBuffer lengths = ByteBuffer.allocate(4 * BATCH_RECORDS);
+        private final ByteBuffer[] buffers = new ByteBuffer[2 * BATCH_RECORDS];
+        private int pending;
+        long count;
+
+        BatchWriter(GatheringByteChannel out, RecordCodec<T> codec) {
+            this.out = out;
+            this.codec = codec;
+        }
+
+        @Override
+        public void accept(T entity) {
+            byte[] payload = RecordBytes.encode(codec, entity);
+            lengths.putInt(4 * pending, payload.length);
+            buffers[2 * pending] = lengths.slice(4 * pending, 4);
+            buffers[2 * pending + 1] = ByteBuffer.wrap(payload);
+            pending++;
+            count++;
+            if (pending == BATCH_RECORDS) {
+                try {
+                    flush();
+                } catch (IOException e) {
+                    throw new PersistenceException("Bulk export failed", e);
+                }
+            }
+        }
+
+        void flush() throws IOException {
+            writeFully(out, buffers, 2 * pending);
+            for (int i = 0; i < 2 * pending; i++) {
+                buffers[i] = null;
+            }
+            pending = 0;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package src.persistence;
+
+import src.codec.RecordBytes;
+import src.codec.RecordCodec;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Persistence for one repository: snapshot + write-ahead log.
+// Startup cost is one snapshot read plus the log written since that snapshot.
+public class DurableStore<T> implements AutoCloseable {
+
+    public interface RecoveryHandler<T> {
+        void onSave(String id, T entity);
+
+        void onDelete(String id);
+    }
+
+    private final Path directory;
+    private final RecordCodec<T> codec;
+    private final WriteAheadLog wal;
+    private final SnapshotStore<T> snapshots;
+    private final ScheduledExecutorService compactor;
+
+    private volatile Map<String, T> source = Collections.emptyMap();
+
+    public DurableStore(Path directory, RecordCodec<T> codec, PersistenceConfig config) {
+        this.directory = directory;
+        this.codec = codec;
+        this.wal = new WriteAheadLog(directory.resolve("wal"), config);
+        this.snapshots = new SnapshotStore<>(directory.resolve("snapshots"), codec);
+
+        long interval = config.getCompactionIntervalMillis();
+        if (interval > 0) {
+            this.compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "compactor-" + directory.getFileName());
+                t.setDaemon(true);
+                return t;
+            });
+            compactor.scheduleWithFixedDelay(this::compactQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.compactor = null;
+        }
+    }
+
+    // Snapshot first, then the log tail; records are full-entity upserts so replay order is all that matters
+    public void recover(RecoveryHandler<T> handler) {
+        long snapshotSeq = snapshots.load(handler::onSave);
+        wal.replay(snapshotSeq, (seq, op, id, payload) -> {
+            if (op == WriteAheadLog.OP_SAVE) {
+                handler.onSave(id, RecordBytes.decode(codec, payload, 0, payload.length));
+            } else if (op == WriteAheadLog.OP_DELETE) {
+                handler.onDelete(id);
+            }
+        });
+    }
+
+    // Live view of the repository contents, read by compaction
+    public void bind(Map<String, T> source) {
+        this.source = Collections.unmodifiableMap(source);
+    }
+
+    public void logSave(String id, T entity) {
+        wal.append(WriteAheadLog.OP_SAVE, id, RecordBytes.encode(codec, entity));
+    }
+
+    // One write-ahead log append for the whole batch
+    public void logSaveAll(List<String> ids, List<T> entities) {
+        List<byte[]> payloads = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            payloads.add(RecordBytes.encode(codec, entity));
+        }
+        wal.appendBatch(WriteAheadLog.OP_SAVE, ids, payloads);
+    }
+
+    public void logDelete(String id) {
+        wal.append(WriteAheadLog.OP_DELETE, id, new byte[0]);
+    }
+
+    // Roll the log, snapshot the live map, then drop segments the snapshot covers. Writes that race
+    // with the snapshot land in the new segment and are replayed over it, so the result converges.
+    public synchronized void compact() {
+        long boundary = wal.rollSegment();
+        snapshots.write(boundary - 1, source);
+        wal.deleteSegmentsBefore(boundary);
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            System.err.println("Error: compaction failed for " + directory + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (compactor != null) {
+            compactor.shutdownNow();
+        }
+        wal.close();
+    }
+}
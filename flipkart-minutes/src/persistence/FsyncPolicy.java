@@ -0,0 +1,10 @@
+package src.persistence;
+
+public enum FsyncPolicy {
+    // Every append waits until it is on disk; concurrent writers share one fsync (group commit)
+    EVERY_WRITE,
+    // A background flusher forces the log every syncIntervalMillis; a crash can lose that window
+    INTERVAL,
+    // Leave flushing to the OS page cache
+    NEVER
+}
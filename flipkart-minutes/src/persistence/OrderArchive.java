@@ -0,0 +1,250 @@
+package src.persistence;
+
+import src.codec.OrderRecordCodec;
+import src.codec.RecordBytes;
+import src.models.Order;
+import src.util.LongLongHashMap;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Append-only cold tier for orders that reached a terminal state. Records live in fixed-size,
+// memory-mapped segment files; the heap keeps only primitive offset indexes.
+//
+// Record: [int payloadLength][long orderId][long customerId][long previousOffsetForCustomer][payload]
+// The length is written last, so a record torn by a crash reads as the end of the segment.
+// Each record links to the customer's previous archived order, so per-customer lookups walk a
+// chain on disk and the heap holds one offset per customer rather than a list.
+public class OrderArchive implements AutoCloseable {
+
+    public static final long DEFAULT_SEGMENT_BYTES = 64L << 20;
+
+    private static final int HEADER_BYTES = 4 + 8 + 8 + 8;
+    private static final long NONE = -1L;
+    private static final String SUFFIX = ".archive";
+
+    private static final class Segment {
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+
+        Segment(FileChannel channel, MappedByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final OrderRecordCodec codec = new OrderRecordCodec();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Segment> segments = new ArrayList<>();
+    private final LongLongHashMap offsetByOrderId = new LongLongHashMap(1 << 16);
+    private final LongLongHashMap latestOffsetByCustomer = new LongLongHashMap(1 << 12);
+    private int writePosition;
+
+    public OrderArchive(Path directory) {
+        this(directory, DEFAULT_SEGMENT_BYTES);
+    }
+
+    public OrderArchive(Path directory, long segmentBytes) {
+        if (segmentBytes <= HEADER_BYTES || segmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Unsupported segment size: " + segmentBytes);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException e) {
+            throw new PersistenceException("Failed to open order archive in " + directory, e);
+        }
+    }
+
+    public void append(Order order) {
+        byte[] payload = RecordBytes.encode(codec, order);
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes > segmentBytes) {
+            throw new PersistenceException("Order " + order.getOrderId() + " does not fit an archive segment");
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (segments.isEmpty() || writePosition + recordBytes > segmentBytes) {
+                if (!segments.isEmpty()) {
+                    segments.get(segments.size() - 1).buffer.force();
+                }
+                openSegment(segments.size());
+                writePosition = 0;
+            }
+            int segmentIndex = segments.size() - 1;
+            MappedByteBuffer buffer = segments.get(segmentIndex).buffer;
+            int position = writePosition;
+            long previous = latestOffsetByCustomer.get(order.getCustomerId(), NONE);
+
+            buffer.putLong(position + 4, order.getOrderId());
+            buffer.putLong(position + 12, order.getCustomerId());
+            buffer.putLong(position + 20, previous);
+            buffer.put(position + HEADER_BYTES, payload);
+            buffer.putInt(position, payload.length);
+
+            long offset = segmentIndex * segmentBytes + position;
+            offsetByOrderId.put(order.getOrderId(), offset);
+            latestOffsetByCustomer.put(order.getCustomerId(), offset);
+            writePosition = position + recordBytes;
+        } catch (IOException e) {
+            throw new PersistenceException("Failed to grow order archive in " + directory, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Flush appended records to disk; call before dropping the hot copies
+    public void force() {
+        lock.readLock().lock();
+        try {
+            if (!segments.isEmpty()) {
+                segments.get(segments.size() - 1).buffer.force();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Detached copy decoded from the archive, or null
+    public Order find(long orderId) {
+        lock.readLock().lock();
+        try {
+            long offset = offsetByOrderId.get(orderId, NONE);
+            return offset == NONE ? null : read(offset);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(long orderId) {
+        lock.readLock().lock();
+        try {
+            return offsetByOrderId.containsKey(orderId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Newest first
+    public List<Order> findByCustomerId(long customerId) {
+        List<Order> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Set<Long> seen = new HashSet<>();
+            long offset = latestOffsetByCustomer.get(customerId, NONE);
+            while (offset != NONE) {
+                MappedByteBuffer buffer = segmentAt(offset);
+                int position = positionOf(offset);
+                long orderId = buffer.getLong(position + 4);
+                // An order archived twice (crash between archive and hot delete) is linked twice
+                if (offsetByOrderId.get(orderId, NONE) == offset && seen.add(orderId)) {
+                    result.add(read(offset));
+                }
+                offset = buffer.getLong(position + 20);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return offsetByOrderId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            for (Segment segment : segments) {
+                segment.buffer.force();
+                segment.channel.close();
+            }
+            segments.clear();
+        } catch (IOException e) {
+            throw new PersistenceException("Failed to close order archive in " + directory, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the lock
+    private Order read(long offset) {
+        MappedByteBuffer buffer = segmentAt(offset);
+        int position = positionOf(offset);
+        int length = buffer.getInt(position);
+        byte[] payload = new byte[length];
+        buffer.get(position + HEADER_BYTES, payload);
+        return RecordBytes.decode(codec, payload, 0, length);
+    }
+
+    private MappedByteBuffer segmentAt(long offset) {
+        return segments.get((int) (offset / segmentBytes)).buffer;
+    }
+
+    private int positionOf(long offset) {
+        return (int) (offset % segmentBytes);
+    }
+
+    // Rebuild the offset indexes by walking record headers; payloads are not decoded
+    private void recover() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        files.sort(null);
+        for (int i = 0; i < files.size(); i++) {
+            if (!files.get(i).equals(segmentPath(i))) {
+                throw new PersistenceException("Unexpected archive segment " + files.get(i));
+            }
+            openSegment(i);
+            MappedByteBuffer buffer = segments.get(i).buffer;
+            int position = 0;
+            while (position + HEADER_BYTES <= segmentBytes) {
+                int length = buffer.getInt(position);
+                if (length <= 0 || position + HEADER_BYTES + length > segmentBytes) {
+                    break;
+                }
+                long offset = i * segmentBytes + position;
+                offsetByOrderId.put(buffer.getLong(position + 4), offset);
+                latestOffsetByCustomer.put(buffer.getLong(position + 12), offset);
+                position += HEADER_BYTES + length;
+            }
+            writePosition = position;
+        }
+    }
+
+    private void openSegment(int index) throws IOException {
+        FileChannel channel = FileChannel.open(segmentPath(index),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        segments.add(new Segment(channel, buffer));
+    }
+
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format("%08d%s", index, SUFFIX));
+    }
+}
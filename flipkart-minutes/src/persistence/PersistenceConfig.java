@@ -0,0 +1,39 @@
+package src.persistence;
+
+public class PersistenceConfig {
+
+    private final FsyncPolicy fsyncPolicy;
+    private final long syncIntervalMillis;
+    private final long segmentMaxBytes;
+    private final long compactionIntervalMillis;
+
+    public PersistenceConfig(FsyncPolicy fsyncPolicy, long syncIntervalMillis,
+                             long segmentMaxBytes, long compactionIntervalMillis) {
+        this.fsyncPolicy = fsyncPolicy;
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.segmentMaxBytes = segmentMaxBytes;
+        this.compactionIntervalMillis = compactionIntervalMillis;
+    }
+
+    // Group-committed fsync, 64 MB segments, snapshot every 5 minutes
+    public static PersistenceConfig defaults() {
+        return new PersistenceConfig(FsyncPolicy.EVERY_WRITE, 50, 64L * 1024 * 1024, 5 * 60 * 1000L);
+    }
+
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    public long getSyncIntervalMillis() {
+        return syncIntervalMillis;
+    }
+
+    public long getSegmentMaxBytes() {
+        return segmentMaxBytes;
+    }
+
+    // 0 disables periodic compaction (compact() can still be called directly)
+    public long getCompactionIntervalMillis() {
+        return compactionIntervalMillis;
+    }
+}
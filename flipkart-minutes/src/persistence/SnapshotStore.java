@@ -0,0 +1,122 @@
+package src.persistence;
+
+import src.codec.RecordBytes;
+import src.codec.RecordCodec;
+import src.util.FileUtil;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Point-in-time image of a repository. File layout:
+//   [int magic][int version][long lastSeq] then repeated [boolean more][UTF id][int length][payload]
+// Payloads are standalone tagged records (RecordBytes), the same encoding the write-ahead log uses.
+// Written to a temp file, fsynced and atomically renamed, so a crash never leaves a half snapshot.
+public class SnapshotStore<T> {
+
+    private static final int MAGIC = 0x464B534E; // "FKSN"
+    private static final int VERSION = 2;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snap";
+
+    public interface EntryHandler<T> {
+        void onEntry(String id, T entity);
+    }
+
+    private final Path directory;
+    private final RecordCodec<T> codec;
+
+    public SnapshotStore(Path directory, RecordCodec<T> codec) {
+        this.directory = directory;
+        this.codec = codec;
+    }
+
+    // Loads the newest snapshot and returns the log sequence it covers (0 if none)
+    public long load(EntryHandler<T> handler) {
+        try {
+            Path latest = latestSnapshot();
+            if (latest == null) {
+                return 0;
+            }
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(latest), 1 << 16))) {
+                if (in.readInt() != MAGIC) {
+                    throw new PersistenceException("Not a snapshot file: " + latest);
+                }
+                int version = in.readInt();
+                if (version != VERSION) {
+                    throw new PersistenceException("Unsupported snapshot version " + version + " in " + latest);
+                }
+                long lastSeq = in.readLong();
+                while (in.readBoolean()) {
+                    String id = in.readUTF();
+                    byte[] payload = new byte[in.readInt()];
+                    in.readFully(payload);
+                    handler.onEntry(id, RecordBytes.decode(codec, payload, 0, payload.length));
+                }
+                return lastSeq;
+            }
+        } catch (IOException e) {
+            throw new PersistenceException("Failed to load snapshot from " + directory, e);
+        }
+    }
+
+    public void write(long lastSeq, Map<String, T> entities) {
+        Path target = directory.resolve(String.format("%s%020d%s", PREFIX, lastSeq, SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(directory);
+            try (FileOutputStream file = new FileOutputStream(temp.toFile());
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(lastSeq);
+                for (Map.Entry<String, T> entry : entities.entrySet()) {
+                    byte[] payload = RecordBytes.encode(codec, entry.getValue());
+                    out.writeBoolean(true);
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(payload.length);
+                    out.write(payload);
+                }
+                out.writeBoolean(false);
+                out.flush();
+                file.getFD().sync();
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            // The caller drops the WAL segments this covers next; the rename must be on disk first
+            FileUtil.syncDirectory(directory);
+
+            for (Path old : listSnapshots()) {
+                if (!old.equals(target)) {
+                    Files.deleteIfExists(old);
+                }
+            }
+        } catch (IOException e) {
+            throw new PersistenceException("Failed to write snapshot to " + directory, e);
+        }
+    }
+
+    private Path latestSnapshot() throws IOException {
+        List<Path> snapshots = listSnapshots();
+        return snapshots.isEmpty() ? null : snapshots.get(snapshots.size() - 1);
+    }
+
+    private List<Path> listSnapshots() throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return snapshots;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .forEach(snapshots::add);
+        }
+        return snapshots;
+    }
+}
@@ -0,0 +1,410 @@
+package src.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Segmented append-only log. Record layout:
+//   [int bodyLength][int crc32(body)] body = [long seq][byte op][short idLength][id][payload]
+// A torn record at the tail of the last segment (crash mid-write) is truncated on open; corruption
+// anywhere else fails the open or replay. A failed append is cut back off the segment before the
+// next one lands, and if that is impossible the log refuses further appends.
+public class WriteAheadLog implements AutoCloseable {
+
+    public static final byte OP_SAVE = 1;
+    public static final byte OP_DELETE = 2;
+
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final int HEADER_BYTES = 8;
+
+    public interface RecordHandler {
+        void onRecord(long seq, byte op, String id, byte[] payload) throws IOException;
+    }
+
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final long segmentMaxBytes;
+
+    // Locks rather than monitors: appends and fsyncs block on I/O, which would pin a virtual thread
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    private FileChannel channel;
+    private Path currentSegment;
+    private long currentSegmentBytes;
+    private long nextSeq;
+    private IOException failure; // guarded by appendLock; set once the segment may hold a torn record
+
+    private volatile long lastWrittenSeq;
+    private volatile long lastSyncedSeq;
+
+    private final ScheduledExecutorService flusher;
+
+    public WriteAheadLog(Path directory, PersistenceConfig config) {
+        this.directory = directory;
+        this.fsyncPolicy = config.getFsyncPolicy();
+        this.segmentMaxBytes = config.getSegmentMaxBytes();
+
+        try {
+            Files.createDirectories(directory);
+            List<Path> segments = listSegments();
+            long lastSeq = 0;
+            if (!segments.isEmpty()) {
+                lastSeq = firstSeqOf(segments.get(segments.size() - 1)) - 1;
+            }
+            for (int i = 0; i < segments.size(); i++) {
+                boolean tail = i == segments.size() - 1;
+                long segmentLast = scanSegment(segments.get(i), tail, 0, null);
+                lastSeq = Math.max(lastSeq, segmentLast);
+            }
+            this.nextSeq = lastSeq + 1;
+            this.lastWrittenSeq = lastSeq;
+            this.lastSyncedSeq = lastSeq;
+
+            if (segments.isEmpty()) {
+                openSegment(nextSeq);
+            } else {
+                Path tail = segments.get(segments.size() - 1);
+                this.currentSegment = tail;
+                this.channel = FileChannel.open(tail, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                this.currentSegmentBytes = channel.size();
+            }
+        } catch (IOException e) {
+            throw new PersistenceException("Failed to open write-ahead log in " + directory, e);
+        }
+
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "wal-flusher-" + directory.getFileName());
+                t.setDaemon(true);
+                return t;
+            });
+            long interval = Math.max(1, config.getSyncIntervalMillis());
+            flusher.scheduleWithFixedDelay(() -> syncUpTo(lastWrittenSeq),
+                    interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    public long append(byte op, String id, byte[] payload) {
+        byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        int bodyLength = 8 + 1 + 2 + idBytes.length + payload.length;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + bodyLength);
+
+        long seq;
+        appendLock.lock();
+        try {
+            seq = nextSeq++;
+            buffer.putInt(bodyLength).putInt(0)
+                    .putLong(seq).put(op).putShort((short) idBytes.length).put(idBytes).put(payload);
+            CRC32 crc = new CRC32();
+            crc.update(buffer.array(), HEADER_BYTES, bodyLength);
+            buffer.putInt(4, (int) crc.getValue());
+            buffer.flip();
+
+            writeLocked(buffer, seq);
+            lastWrittenSeq = seq;
+        } finally {
+            appendLock.unlock();
+        }
+
+        if (fsyncPolicy == FsyncPolicy.EVERY_WRITE) {
+            syncUpTo(seq);
+        }
+        return seq;
+    }
+
+    // Many records under one lock hold, one write and (with EVERY_WRITE) one fsync; returns the last sequence
+    public long appendBatch(byte op, List<String> ids, List<byte[]> payloads) {
+        int count = ids.size();
+        byte[][] idBytes = new byte[count][];
+        int total = 0;
+        for (int i = 0; i < count; i++) {
+            idBytes[i] = ids.get(i).getBytes(StandardCharsets.UTF_8);
+            total += HEADER_BYTES + 8 + 1 + 2 + idBytes[i].length + payloads.get(i).length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        CRC32 crc = new CRC32();
+
+        long seq;
+        appendLock.lock();
+        try {
+            long firstSeq = nextSeq;
+            seq = nextSeq - 1;
+            for (int i = 0; i < count; i++) {
+                seq = nextSeq++;
+                int start = buffer.position();
+                byte[] payload = payloads.get(i);
+                int bodyLength = 8 + 1 + 2 + idBytes[i].length + payload.length;
+                buffer.putInt(bodyLength).putInt(0)
+                        .putLong(seq).put(op).putShort((short) idBytes[i].length).put(idBytes[i]).put(payload);
+                crc.reset();
+                crc.update(buffer.array(), start + HEADER_BYTES, bodyLength);
+                buffer.putInt(start + 4, (int) crc.getValue());
+            }
+            buffer.flip();
+
+            writeLocked(buffer, firstSeq);
+            lastWrittenSeq = seq;
+        } finally {
+            appendLock.unlock();
+        }
+
+        if (fsyncPolicy == FsyncPolicy.EVERY_WRITE) {
+            syncUpTo(seq);
+        }
+        return seq;
+    }
+
+    // Group commit: one force() makes every record written so far durable, so threads that
+    // queue up behind an in-flight fsync usually find their record already covered.
+    public void syncUpTo(long seq) {
+        if (lastSyncedSeq >= seq) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (lastSyncedSeq >= seq) {
+                return;
+            }
+            long target = lastWrittenSeq;
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                throw new PersistenceException("Failed to fsync write-ahead log", e);
+            }
+            lastSyncedSeq = target;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // Close the current segment and start a new one; returns the first sequence of the new segment
+    public long rollSegment() {
+        appendLock.lock();
+        try {
+            if (currentSegmentBytes > 0) {
+                rollLocked();
+            }
+            return nextSeq;
+        } catch (IOException e) {
+            throw new PersistenceException("Failed to roll write-ahead log segment", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Drop closed segments whose records all precede seq (they are covered by a snapshot)
+    public void deleteSegmentsBefore(long seq) {
+        appendLock.lock();
+        try {
+            List<Path> segments = listSegments();
+            for (int i = 0; i + 1 < segments.size(); i++) {
+                if (firstSeqOf(segments.get(i + 1)) <= seq) {
+                    Files.deleteIfExists(segments.get(i));
+                }
+            }
+        } catch (IOException e) {
+            throw new PersistenceException("Failed to delete old write-ahead log segments", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Replay every record with sequence > afterSeq in log order
+    public void replay(long afterSeq, RecordHandler handler) {
+        appendLock.lock();
+        try {
+            List<Path> segments = listSegments();
+            for (int i = 0; i < segments.size(); i++) {
+                // Skip segments that end before the snapshot point
+                if (i + 1 < segments.size() && firstSeqOf(segments.get(i + 1)) <= afterSeq + 1) {
+                    continue;
+                }
+                scanSegment(segments.get(i), false, afterSeq, handler);
+            }
+        } catch (IOException e) {
+            throw new PersistenceException("Failed to replay write-ahead log", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public long getLastWrittenSeq() {
+        return lastWrittenSeq;
+    }
+
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        appendLock.lock();
+        try {
+            syncLock.lock();
+            try {
+                channel.force(false);
+                lastSyncedSeq = lastWrittenSeq;
+                channel.close();
+            } catch (IOException e) {
+                throw new PersistenceException("Failed to close write-ahead log", e);
+            } finally {
+                syncLock.unlock();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Caller holds appendLock. On failure a partly written record would sit in front of every later
+    // append and, at the next open, truncating it as a torn tail would take those with it - so the
+    // segment is cut back to its last complete record and the sequences are handed back. If even
+    // that fails the log is marked failed.
+    private void writeLocked(ByteBuffer buffer, long firstSeq) {
+        if (failure != null) {
+            throw new PersistenceException("Write-ahead log in " + directory + " failed earlier; refusing appends", failure);
+        }
+        int length = buffer.remaining();
+        boolean rolling = currentSegmentBytes > 0 && currentSegmentBytes + length > segmentMaxBytes;
+        try {
+            if (rolling) {
+                rollLocked();
+            }
+            rolling = false;
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            currentSegmentBytes += length;
+        } catch (IOException e) {
+            nextSeq = firstSeq;
+            if (rolling) {
+                failure = e; // channel state unknown
+            } else {
+                try {
+                    channel.truncate(currentSegmentBytes);
+                } catch (IOException truncateFailure) {
+                    e.addSuppressed(truncateFailure);
+                    failure = e;
+                }
+            }
+            throw new PersistenceException("Failed to append to write-ahead log", e);
+        }
+    }
+
+    // Caller holds appendLock. Swapping the channel under syncLock keeps syncUpTo's
+    // (channel, lastWrittenSeq) pair consistent.
+    private void rollLocked() throws IOException {
+        syncLock.lock();
+        try {
+            channel.force(false);
+            channel.close();
+            lastSyncedSeq = lastWrittenSeq;
+            openSegment(nextSeq);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void openSegment(long firstSeq) throws IOException {
+        currentSegment = directory.resolve(String.format("%020d%s", firstSeq, SEGMENT_SUFFIX));
+        channel = FileChannel.open(currentSegment,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        currentSegmentBytes = channel.size();
+    }
+
+    // Reads a segment, handing records after afterSeq to the handler; returns the last good sequence.
+    // With truncateTornTail (the last segment, at open) a partial or corrupt trailing record is cut
+    // off; anywhere else a bad record means lost data and fails.
+    private long scanSegment(Path segment, boolean truncateTornTail,
+                             long afterSeq, RecordHandler handler) throws IOException {
+        long lastSeq = 0;
+        try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long size = in.size();
+            long position = 0;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (position < size) {
+                header.clear();
+                if (readFully(in, header, position) < HEADER_BYTES) {
+                    break;
+                }
+                header.flip();
+                int bodyLength = header.getInt();
+                int expectedCrc = header.getInt();
+                if (bodyLength < 11 || position + HEADER_BYTES + bodyLength > size) {
+                    break;
+                }
+                ByteBuffer body = ByteBuffer.allocate(bodyLength);
+                readFully(in, body, position + HEADER_BYTES);
+                CRC32 crc = new CRC32();
+                crc.update(body.array(), 0, bodyLength);
+                if ((int) crc.getValue() != expectedCrc) {
+                    break;
+                }
+                body.flip();
+                long seq = body.getLong();
+                byte op = body.get();
+                byte[] idBytes = new byte[body.getShort() & 0xFFFF];
+                body.get(idBytes);
+                byte[] payload = new byte[body.remaining()];
+                body.get(payload);
+
+                if (handler != null && seq > afterSeq) {
+                    handler.onRecord(seq, op, new String(idBytes, StandardCharsets.UTF_8), payload);
+                }
+                lastSeq = seq;
+                position += HEADER_BYTES + bodyLength;
+            }
+            if (position < size) {
+                if (!truncateTornTail) {
+                    throw new PersistenceException("Corrupt write-ahead log record in " + segment
+                            + " at offset " + position);
+                }
+                System.err.println("Warning: truncating torn write-ahead log tail in " + segment +
+                        " at offset " + position);
+                try (FileChannel out = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                    out.truncate(position);
+                    out.force(true);
+                }
+            }
+        }
+        return lastSeq;
+    }
+
+    private static int readFully(FileChannel in, ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = in.read(buffer, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .forEach(segments::add);
+        }
+        return segments;
+    }
+
+    private static long firstSeqOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
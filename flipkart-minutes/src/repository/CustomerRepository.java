@@ -3,28 +3,46 @@ package src.repository;
 import src.models.Customer;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
-public class CustomerRepository extends InMemoryRepository<Customer> {
+public class CustomerRepository extends LongKeyedRepository<Customer> {
+
+    private final SecondaryIndex<Customer, String> byPhone = index("phone", Customer::getPhone);
+    private final SecondaryIndex<Customer, String> byEmail = index("email", Customer::getEmail);
+    private final TextSearchIndex<Customer> byName = registerIndex(new TextSearchIndex<>("name", Customer::getName));
 
     @Override
-    protected String getEntityId(Customer entity) {
-        return String.valueOf(entity.getCustomerId());
+    protected long getEntityKey(Customer entity) {
+        return entity.getCustomerId();
     }
 
     public Customer findByName(String name) {
-        return findAll().stream().filter(customer -> customer.getName().equalsIgnoreCase(name)).findFirst().orElse(null);
+        List<Customer> matches = byName.findExact(name, 1);
+        return matches.isEmpty() ? null : matches.get(0);
     }
 
     public List<Customer> findByNameContaining(String keyword) {
-        return findAll().stream().filter(customer -> customer.getName().toLowerCase().contains(keyword.toLowerCase())).collect(Collectors.toList());
+        return findByNameContaining(keyword, Integer.MAX_VALUE);
+    }
+
+    public List<Customer> findByNameContaining(String keyword, int limit) {
+        return byName.findContaining(keyword, limit);
+    }
+
+    // Names starting with the prefix, then names with a later word starting with it
+    public List<Customer> findByNamePrefix(String prefix, int limit) {
+        return byName.findByPrefix(prefix, limit);
+    }
+
+    // Typo-tolerant name search, best match first
+    public List<Customer> searchByName(String query, int limit) {
+        return byName.findSimilar(query, limit);
     }
 
     public Customer findByEmail(String email) {
-        return findAll().stream().filter(customer -> email.equals(customer.getEmail())).findFirst().orElse(null);
+        return byEmail.findFirst(email);
     }
 
     public Customer findByPhone(String phone) {
-        return findAll().stream().filter(customer -> phone.equals(customer.getPhone())).findFirst().orElse(null);
+        return byPhone.findFirst(phone);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,16 @@
+package src.repository;
+
+// Derived view over a repository's entities, kept in step with every save/delete.
+// previous is the entity instance stored under the same id before the save (null for inserts).
+public interface EntityIndex<T> {
+
+    // Reject a save before anything is written (e.g. unique key already taken)
+    default void validate(T previous, T current) {
+    }
+
+    void onSave(T previous, T current);
+
+    void onDelete(T removed);
+
+    void clear();
+}
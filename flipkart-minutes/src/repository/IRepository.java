@@ -2,6 +2,8 @@ package src.repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 
 public interface IRepository<T> {
@@ -11,6 +13,12 @@ public interface IRepository<T> {
 
     List<T> findAll();
 
+    // Weakly consistent views over the live storage - no copy of the table
+    Stream<T> stream();
+
+    // Stops at the first entity the action returns false for; false if it stopped early
+    boolean forEachWhile(Predicate<T> action);
+
     void delete(String id);
 
     boolean exists(String id);
@@ -0,0 +1,244 @@
+package src.repository;
+
+import src.persistence.DurableStore;
+import src.util.ConcurrentLongMap;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+// Repository keyed by a primitive long id. getById(long) is the hot-path lookup: no String, no
+// boxing, no lock, no allocation. The String-keyed IRepository methods stay available as an
+// adapter that parses the id, for callers that only have the string form.
+public abstract class LongKeyedRepository<T> implements IRepository<T> {
+
+    protected final ConcurrentLongMap<T> storage = new ConcurrentLongMap<>();
+
+    private final List<EntityIndex<T>> indexes = new CopyOnWriteArrayList<>();
+
+    private volatile DurableStore<T> durableStore;
+
+    protected abstract long getEntityKey(T entity);
+
+    @Override
+    public T save(T entity) {
+        long id = getEntityKey(entity);
+        apply(id, entity);
+
+        // Logged after the map write so a concurrent snapshot either sees the entity or replays it
+        DurableStore<T> store = durableStore;
+        if (store != null) {
+            store.logSave(String.valueOf(id), entity);
+        }
+        return entity;
+    }
+
+    // Bulk insert: every entity goes into the map and indexes, then the batch is logged with one
+    // append. If an index rejects an entity, the ones applied before it are still logged and the
+    // exception propagates.
+    public void saveAll(List<T> entities) {
+        List<String> ids = new ArrayList<>(entities.size());
+        List<T> applied = new ArrayList<>(entities.size());
+        try {
+            for (T entity : entities) {
+                long id = getEntityKey(entity);
+                apply(id, entity);
+                ids.add(String.valueOf(id));
+                applied.add(entity);
+            }
+        } finally {
+            DurableStore<T> store = durableStore;
+            if (store != null && !applied.isEmpty()) {
+                store.logSaveAll(ids, applied);
+            }
+        }
+    }
+
+    private void apply(long id, T entity) {
+        T previous = storage.get(id);
+
+        // Validate every index before touching anything so a rejected save leaves no trace
+        for (EntityIndex<T> index : indexes) {
+            index.validate(previous, entity);
+        }
+        for (EntityIndex<T> index : indexes) {
+            index.onSave(previous, entity);
+        }
+
+        storage.put(id, entity);
+    }
+
+    // Null if absent
+    public T getById(long id) {
+        return storage.get(id);
+    }
+
+    public Optional<T> findById(long id) {
+        return Optional.ofNullable(storage.get(id));
+    }
+
+    public boolean exists(long id) {
+        return storage.containsKey(id);
+    }
+
+    public void delete(long id) {
+        if (remove(id)) {
+            DurableStore<T> store = durableStore;
+            if (store != null) {
+                store.logDelete(String.valueOf(id));
+            }
+        }
+    }
+
+    private boolean remove(long id) {
+        T removed = storage.remove(id);
+        if (removed == null) {
+            return false;
+        }
+        for (EntityIndex<T> index : indexes) {
+            index.onDelete(removed);
+        }
+        return true;
+    }
+
+    public int count() {
+        return storage.size();
+    }
+
+    // A full copy - prefer stream(), forEachWhile() or cursor() for scans and filters
+    @Override
+    public List<T> findAll() {
+        return storage.values();
+    }
+
+    // Visits every entity without building a list; weakly consistent under concurrent writes
+    public void forEach(Consumer<T> action) {
+        storage.forEachValue(action);
+    }
+
+    @Override
+    public boolean forEachWhile(Predicate<T> action) {
+        return storage.forEachWhile((id, entity) -> action.test(entity));
+    }
+
+    @Override
+    public Stream<T> stream() {
+        return storage.valueStream();
+    }
+
+    // Matching entities, at most limit; allocates only the result
+    public List<T> findWhere(Predicate<T> filter, int limit) {
+        List<T> result = new ArrayList<>();
+        if (limit > 0) {
+            storage.forEachWhile((id, entity) -> {
+                if (filter.test(entity)) {
+                    result.add(entity);
+                }
+                return result.size() < limit;
+            });
+        }
+        return result;
+    }
+
+    public PageCursor<T> cursor(int pageSize) {
+        return new PageCursor<>(storage, pageSize, ConcurrentLongMap.FIRST);
+    }
+
+    // Resumes a walk after the entity with this id (a previous cursor's getPosition())
+    public PageCursor<T> cursor(int pageSize, long afterId) {
+        return new PageCursor<>(storage, pageSize, afterId);
+    }
+
+    // IRepository adapter - ids that are not numbers simply don't exist here
+
+    @Override
+    public Optional<T> findById(String id) {
+        Long key = parseKey(id);
+        return key == null ? Optional.empty() : findById(key.longValue());
+    }
+
+    @Override
+    public void delete(String id) {
+        Long key = parseKey(id);
+        if (key != null) {
+            delete(key.longValue());
+        }
+    }
+
+    @Override
+    public boolean exists(String id) {
+        Long key = parseKey(id);
+        return key != null && exists(key.longValue());
+    }
+
+    private static Long parseKey(String id) {
+        try {
+            return id == null ? null : Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Secondary indexes - subclasses declare them as fields and query through the returned handle
+    protected <K> SecondaryIndex<T, K> uniqueIndex(String name, Function<T, K> keyExtractor) {
+        return registerIndex(SecondaryIndex.unique(name, keyExtractor));
+    }
+
+    protected <K> SecondaryIndex<T, K> index(String name, Function<T, K> keyExtractor) {
+        return registerIndex(SecondaryIndex.nonUnique(name, keyExtractor));
+    }
+
+    protected <I extends EntityIndex<T>> I registerIndex(I index) {
+        storage.forEachValue(entity -> index.onSave(null, entity));
+        indexes.add(index);
+        return index;
+    }
+
+    // Load snapshot + log tail into memory, then log every subsequent save/delete
+    public void enablePersistence(DurableStore<T> store) {
+        store.recover(new DurableStore.RecoveryHandler<T>() {
+            @Override
+            public void onSave(String id, T entity) {
+                apply(Long.parseLong(id), entity);
+            }
+
+            @Override
+            public void onDelete(String id) {
+                remove(Long.parseLong(id));
+            }
+        });
+        store.bind(new StringKeyedView());
+        this.durableStore = store;
+    }
+
+    // Read-only String-keyed view for compaction snapshots
+    private final class StringKeyedView extends AbstractMap<String, T> {
+        @Override
+        public Set<Map.Entry<String, T>> entrySet() {
+            return new AbstractSet<Map.Entry<String, T>>() {
+                @Override
+                public Iterator<Map.Entry<String, T>> iterator() {
+                    List<Map.Entry<String, T>> entries = new ArrayList<>(storage.size());
+                    storage.forEach((id, entity) ->
+                            entries.add(new AbstractMap.SimpleImmutableEntry<>(String.valueOf(id), entity)));
+                    return entries.iterator();
+                }
+
+                @Override
+                public int size() {
+                    return storage.size();
+                }
+            };
+        }
+    }
+}
@@ -2,26 +2,111 @@ package src.repository;
 
 import src.models.Order;
 import src.enums.OrderStatus;
+import src.persistence.OrderArchive;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.function.Predicate;
 
-public class OrderRepository extends InMemoryRepository<Order> {
+public class OrderRepository extends LongKeyedRepository<Order> {
+
+    private final SecondaryIndex<Order, Long> byCustomerId = index("customerId", Order::getCustomerId);
+    private final SecondaryIndex<Order, OrderStatus> byStatus = index("status", Order::getStatus);
+
+    // Cold tier for delivered/cancelled orders; id and customer lookups fall through to it
+    private volatile OrderArchive archive;
 
     @Override
-    protected String getEntityId(Order entity) {
-        return String.valueOf(entity.getOrderId());
+    protected long getEntityKey(Order entity) {
+        return entity.getOrderId();
+    }
+
+    public void enableArchive(OrderArchive archive) {
+        this.archive = archive;
+    }
+
+    // Archived orders come back as detached copies
+    @Override
+    public Order getById(long id) {
+        Order order = super.getById(id);
+        OrderArchive cold = archive;
+        if (order == null && cold != null) {
+            order = cold.find(id);
+        }
+        return order;
+    }
+
+    @Override
+    public Optional<Order> findById(long id) {
+        return Optional.ofNullable(getById(id));
+    }
+
+    @Override
+    public boolean exists(long id) {
+        OrderArchive cold = archive;
+        return super.exists(id) || (cold != null && cold.contains(id));
     }
 
     public List<Order> findByCustomerId(long customerId) {
-        return findAll().stream()
-                .filter(order -> order.getCustomerId() == customerId)
-                .collect(Collectors.toList());
+        List<Order> orders = byCustomerId.find(customerId);
+        OrderArchive cold = archive;
+        if (cold == null) {
+            return orders;
+        }
+        List<Order> result = orders.isEmpty() ? new ArrayList<>() : orders; // find() copies unless empty
+        // An order being moved can briefly be in both tiers; the hot copy wins
+        for (Order order : cold.findByCustomerId(customerId)) {
+            if (!super.exists(order.getOrderId())) {
+                result.add(order);
+            }
+        }
+        return result;
     }
 
+    // Hot tier only - archived orders are not indexed by status
     public List<Order> findByStatus(OrderStatus status) {
-        return findAll().stream()
-                .filter(order -> order.getStatus() == status)
-                .collect(Collectors.toList());
+        return byStatus.find(status);
+    }
+
+    // Visits the status's orders without copying them; stops when the action returns false
+    public boolean forEachByStatus(OrderStatus status, Predicate<Order> action) {
+        return byStatus.forEach(status, action);
+    }
+
+    // Move terminal orders that finished before the cutoff into the archive. The archive is
+    // forced to disk before the hot copies are deleted, so a crash in between only duplicates.
+    // Cancelled orders carry no cancellation time; their creation time stands in for it.
+    public int archiveTerminalOrders(LocalDateTime cutoff) {
+        OrderArchive cold = archive;
+        if (cold == null) {
+            return 0;
+        }
+        List<Order> moved = new ArrayList<>();
+        byStatus.forEach(OrderStatus.DELIVERED, order -> {
+            LocalDateTime finishedAt = order.getDeliveredAt() != null ? order.getDeliveredAt() : order.getCreatedAt();
+            if (finishedAt == null || finishedAt.isBefore(cutoff)) {
+                moved.add(order);
+            }
+            return true;
+        });
+        byStatus.forEach(OrderStatus.CANCELLED, order -> {
+            if (order.getCreatedAt() == null || order.getCreatedAt().isBefore(cutoff)) {
+                moved.add(order);
+            }
+            return true;
+        });
+        if (moved.isEmpty()) {
+            return 0;
+        }
+        for (Order order : moved) {
+            cold.append(order);
+        }
+        cold.force();
+        for (Order order : moved) {
+            delete(order.getOrderId());
+        }
+        return moved.size();
     }
-}
\ No newline at end of file
+}
@@ -5,21 +5,33 @@ import src.models.DeliveryPartner;
 import src.enums.PartnerStatus;
 
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.Comparator;
 
-public class PartnerRepository extends InMemoryRepository<DeliveryPartner> {
+public class PartnerRepository extends LongKeyedRepository<DeliveryPartner> {
+
+    private final SecondaryIndex<DeliveryPartner, PartnerStatus> byStatus =
+            index("status", DeliveryPartner::getStatus);
+    private final SecondaryIndex<DeliveryPartner, String> byPhone =
+            index("phone", DeliveryPartner::getPhone);
+    private final SecondaryIndex<DeliveryPartner, String> byVehicleNumber =
+            index("vehicleNumber", DeliveryPartner::getVehicleNumber);
+
+    // Leaderboards, re-ranked on every save (completeOrder saves after incrementDeliveries/addRating)
+    private final RankingIndex<DeliveryPartner> byDeliveriesThenRating = registerIndex(new RankingIndex<>(
+            "deliveriesThenRating", DeliveryPartner::getPartnerId,
+            DeliveryPartner::getTotalDeliveries, DeliveryPartner::getAverageRating, partner -> true));
+    private final RankingIndex<DeliveryPartner> byRating = registerIndex(new RankingIndex<>(
+            "rating", DeliveryPartner::getPartnerId,
+            DeliveryPartner::getAverageRating, DeliveryPartner::getRatingCount,
+            partner -> partner.getRatingCount() > 0));
 
     @Override
-    protected String getEntityId(DeliveryPartner entity) {
-        return String.valueOf(entity.getPartnerId());
+    protected long getEntityKey(DeliveryPartner entity) {
+        return entity.getPartnerId();
     }
 
     // Custom query methods
     public List<DeliveryPartner> findByStatus(PartnerStatus status) {
-        return findAll().stream()
-                .filter(partner -> partner.getStatus() == status)
-                .collect(Collectors.toList());
+        return byStatus.find(status);
     }
 
     public List<DeliveryPartner> findAvailablePartners() {
@@ -27,46 +39,24 @@ public class PartnerRepository extends InMemoryRepository<DeliveryPartner> {
     }
 
     public DeliveryPartner findByPhone(String phone) {
-        return findAll().stream()
-                .filter(partner -> phone.equals(partner.getPhone()))
-                .findFirst()
-                .orElse(null);
+        return byPhone.findFirst(phone);
     }
 
     public DeliveryPartner findByVehicleNumber(String vehicleNumber) {
-        return findAll().stream()
-                .filter(partner -> vehicleNumber.equals(partner.getVehicleNumber()))
-                .findFirst()
-                .orElse(null);
+        return byVehicleNumber.findFirst(vehicleNumber);
     }
 
-    // Get top performers
+    // Get top performers - O(limit) walks of the incrementally maintained rankings
     public List<DeliveryPartner> getTopPartnersByDeliveries(int limit) {
-        return findAll().stream()
-                .sorted(Comparator.comparingInt(DeliveryPartner::getTotalDeliveries).reversed())
-                .limit(limit)
-                .collect(Collectors.toList());
+        return byDeliveriesThenRating.top(limit);
     }
 
     public List<DeliveryPartner> getTopPartnersByRating(int limit) {
-        return findAll().stream()
-                .filter(partner -> partner.getRatingCount() > 0)
-                .sorted(Comparator.comparingDouble(DeliveryPartner::getAverageRating).reversed())
-                .limit(limit)
-                .collect(Collectors.toList());
+        return byRating.top(limit);
     }
 
-    // Dashboard data
+    // Dashboard data: by deliveries first, then by rating
     public List<DeliveryPartner> getTopPartners(int limit) {
-        return findAll().stream()
-                .sorted((p1, p2) -> {
-                    // Sort by deliveries first, then by rating
-                    int deliveryCompare = Integer.compare(
-                            p2.getTotalDeliveries(), p1.getTotalDeliveries());
-                    if (deliveryCompare != 0) return deliveryCompare;
-                    return Double.compare(p2.getAverageRating(), p1.getAverageRating());
-                })
-                .limit(limit)
-                .collect(Collectors.toList());
+        return byDeliveriesThenRating.top(limit);
     }
-}
\ No newline at end of file
+}
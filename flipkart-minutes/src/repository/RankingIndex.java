@@ -0,0 +1,125 @@
+package src.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+// Incrementally maintained ranking: (primary desc, secondary desc, id asc) in a concurrent
+// skip list. Each save re-positions one entity in O(log n); top-K reads walk K entries.
+// Scores are captured at save time, so callers must save() after changing stats.
+public class RankingIndex<T> implements EntityIndex<T> {
+
+    private static final class Entry<T> {
+        final double primary;
+        final double secondary;
+        final long id;
+        final T entity;
+
+        Entry(double primary, double secondary, long id, T entity) {
+            this.primary = primary;
+            this.secondary = secondary;
+            this.id = id;
+            this.entity = entity;
+        }
+    }
+
+    private final String name;
+    private final ToLongFunction<T> idExtractor;
+    private final ToDoubleFunction<T> primaryScore;
+    private final ToDoubleFunction<T> secondaryScore;
+    private final Predicate<T> eligible;
+
+    private final NavigableSet<Entry<T>> ranking = new ConcurrentSkipListSet<>((a, b) -> {
+        int c = Double.compare(b.primary, a.primary);
+        if (c != 0) return c;
+        c = Double.compare(b.secondary, a.secondary);
+        if (c != 0) return c;
+        return Long.compare(a.id, b.id);
+    });
+    private final Map<T, Entry<T>> entryByEntity = new ConcurrentHashMap<>();
+
+    public RankingIndex(String name, ToLongFunction<T> idExtractor,
+                        ToDoubleFunction<T> primaryScore, ToDoubleFunction<T> secondaryScore,
+                        Predicate<T> eligible) {
+        this.name = name;
+        this.idExtractor = idExtractor;
+        this.primaryScore = primaryScore;
+        this.secondaryScore = secondaryScore;
+        this.eligible = eligible;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void onSave(T previous, T current) {
+        if (previous != null && previous != current) {
+            onDelete(previous);
+        }
+        entryByEntity.compute(current, (entity, old) -> {
+            if (!eligible.test(entity)) {
+                if (old != null) {
+                    ranking.remove(old);
+                }
+                return null;
+            }
+            Entry<T> updated = new Entry<>(primaryScore.applyAsDouble(entity),
+                    secondaryScore.applyAsDouble(entity), idExtractor.applyAsLong(entity), entity);
+            if (old != null && old.primary == updated.primary && old.secondary == updated.secondary) {
+                return old;
+            }
+            // Insert before removing so concurrent readers never miss the entity (top() drops the duplicate)
+            ranking.add(updated);
+            if (old != null) {
+                ranking.remove(old);
+            }
+            return updated;
+        });
+    }
+
+    @Override
+    public void onDelete(T removed) {
+        entryByEntity.computeIfPresent(removed, (entity, old) -> {
+            ranking.remove(old);
+            return null;
+        });
+    }
+
+    @Override
+    public void clear() {
+        ranking.clear();
+        entryByEntity.clear();
+    }
+
+    // Best `limit` entities in rank order
+    public List<T> top(int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        List<T> result = new ArrayList<>(limit);
+        Set<T> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        Iterator<Entry<T>> it = ranking.iterator();
+        while (it.hasNext() && result.size() < limit) {
+            T entity = it.next().entity;
+            if (seen.add(entity)) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return entryByEntity.size();
+    }
+}
@@ -0,0 +1,153 @@
+package src.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Hash index over one extracted key. Entities are tracked by instance (the models use identity
+// equality), so in-place mutations followed by save() move the entity to its new key.
+public class SecondaryIndex<T, K> implements EntityIndex<T> {
+
+    private final String name;
+    private final Function<T, K> keyExtractor;
+    private final boolean unique;
+
+    private final Map<K, Set<T>> entries = new ConcurrentHashMap<>();
+    private final Map<T, K> keyByEntity = new ConcurrentHashMap<>();
+
+    public SecondaryIndex(String name, Function<T, K> keyExtractor, boolean unique) {
+        this.name = name;
+        this.keyExtractor = keyExtractor;
+        this.unique = unique;
+    }
+
+    public static <T, K> SecondaryIndex<T, K> unique(String name, Function<T, K> keyExtractor) {
+        return new SecondaryIndex<>(name, keyExtractor, true);
+    }
+
+    public static <T, K> SecondaryIndex<T, K> nonUnique(String name, Function<T, K> keyExtractor) {
+        return new SecondaryIndex<>(name, keyExtractor, false);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isUnique() {
+        return unique;
+    }
+
+    @Override
+    public void validate(T previous, T current) {
+        if (!unique) {
+            return;
+        }
+        K key = keyExtractor.apply(current);
+        if (key == null) {
+            return;
+        }
+        Set<T> holders = entries.get(key);
+        if (holders == null) {
+            return;
+        }
+        for (T holder : holders) {
+            if (holder != current && holder != previous) {
+                throw new IllegalStateException("Duplicate key for unique index '" + name + "': " + key);
+            }
+        }
+    }
+
+    @Override
+    public void onSave(T previous, T current) {
+        if (previous != null && previous != current) {
+            onDelete(previous);
+        }
+        K newKey = keyExtractor.apply(current);
+        keyByEntity.compute(current, (entity, oldKey) -> {
+            if (Objects.equals(oldKey, newKey)) {
+                return oldKey;
+            }
+            // Attach first so a failure leaves the old mapping intact
+            if (newKey != null) {
+                attach(newKey, entity);
+            }
+            if (oldKey != null) {
+                detach(oldKey, entity);
+            }
+            return newKey;
+        });
+    }
+
+    @Override
+    public void onDelete(T removed) {
+        keyByEntity.computeIfPresent(removed, (entity, oldKey) -> {
+            detach(oldKey, entity);
+            return null;
+        });
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+        keyByEntity.clear();
+    }
+
+    public List<T> find(K key) {
+        Set<T> holders = key == null ? null : entries.get(key);
+        return holders == null ? Collections.emptyList() : new ArrayList<>(holders);
+    }
+
+    // Visits the key's entities in place, stopping when the action returns false; false if it stopped early
+    public boolean forEach(K key, Predicate<T> action) {
+        Set<T> holders = key == null ? null : entries.get(key);
+        if (holders != null) {
+            for (T holder : holders) {
+                if (!action.test(holder)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public T findFirst(K key) {
+        Set<T> holders = key == null ? null : entries.get(key);
+        if (holders == null) {
+            return null;
+        }
+        for (T holder : holders) {
+            return holder;
+        }
+        return null;
+    }
+
+    public int count(K key) {
+        Set<T> holders = key == null ? null : entries.get(key);
+        return holders == null ? 0 : holders.size();
+    }
+
+    private void attach(K key, T entity) {
+        entries.compute(key, (k, holders) -> {
+            if (holders == null) {
+                holders = ConcurrentHashMap.newKeySet();
+            } else if (unique && !holders.isEmpty() && !holders.contains(entity)) {
+                throw new IllegalStateException("Duplicate key for unique index '" + name + "': " + key);
+            }
+            holders.add(entity);
+            return holders;
+        });
+    }
+
+    private void detach(K key, T entity) {
+        entries.computeIfPresent(key, (k, holders) -> {
+            holders.remove(entity);
+            return holders.isEmpty() ? null : holders;
+        });
+    }
+}
@@ -0,0 +1,357 @@
+package src.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+// Case-folded search over one text field (e.g. customer name), maintained on every save/delete.
+//  - trigram inverted index over " text ": substring candidates are the intersection of the
+//    query's trigram postings, verified with contains; fuzzy lookup ranks by shared trigrams
+//  - ordered term maps of whole texts and of each word, used like a prefix trie: a prefix is a
+//    range scan, an exact match a single lookup
+// Queries touch only matching postings, never every entity. Entities are tracked by instance,
+// like SecondaryIndex, so an in-place rename followed by save() re-indexes the entity.
+// A null query matches nothing.
+public class TextSearchIndex<T> implements EntityIndex<T> {
+
+    // Minimum trigram similarity for a fuzzy hit
+    public static final double DEFAULT_MIN_SIMILARITY = 0.3;
+
+    private final String name;
+    private final Function<T, String> textExtractor;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<T, String> foldedByEntity = new HashMap<>();
+    private final Map<Long, Set<T>> postings = new HashMap<>();
+    private final TreeMap<String, Set<T>> texts = new TreeMap<>();
+    private final TreeMap<String, Set<T>> words = new TreeMap<>();
+
+    public TextSearchIndex(String name, Function<T, String> textExtractor) {
+        this.name = name;
+        this.textExtractor = textExtractor;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void onSave(T previous, T current) {
+        lock.writeLock().lock();
+        try {
+            if (previous != null && previous != current) {
+                unindex(previous);
+            }
+            String text = textExtractor.apply(current);
+            String folded = text == null ? null : fold(text);
+            String indexed = foldedByEntity.get(current);
+            if (folded == null ? indexed == null : folded.equals(indexed)) {
+                return;
+            }
+            unindex(current);
+            if (folded != null) {
+                index(current, folded);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onDelete(T removed) {
+        lock.writeLock().lock();
+        try {
+            unindex(removed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            foldedByEntity.clear();
+            postings.clear();
+            texts.clear();
+            words.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Case-insensitive whole-text match
+    public List<T> findExact(String text, int limit) {
+        if (text == null) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            return take(texts.get(fold(text)), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Case-insensitive substring match. Queries shorter than a trigram scan the trigram vocabulary
+    // instead of the entities.
+    public List<T> findContaining(String query, int limit) {
+        if (query == null) {
+            return Collections.emptyList();
+        }
+        String q = fold(query);
+        lock.readLock().lock();
+        try {
+            if (q.isEmpty()) {
+                return take(foldedByEntity.keySet(), limit);
+            }
+            List<T> result = new ArrayList<>();
+            if (q.length() < 3) {
+                collectShortQuery(q, result, limit);
+                return result;
+            }
+            List<Set<T>> lists = new ArrayList<>();
+            for (long gram : trigrams(q)) {
+                Set<T> posting = postings.get(gram);
+                if (posting == null) {
+                    return result;
+                }
+                lists.add(posting);
+            }
+            // Walk the rarest trigram's posting, probe the others, stop at the limit
+            lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+            collectVerified(lists.get(0), lists.subList(1, lists.size()), q, result, limit);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Whole texts starting with the prefix first, then texts with a later word starting with it
+    public List<T> findByPrefix(String prefix, int limit) {
+        if (prefix == null) {
+            return Collections.emptyList();
+        }
+        String p = fold(prefix);
+        lock.readLock().lock();
+        try {
+            Set<T> result = new LinkedHashSet<>();
+            collectPrefix(texts, p, result, limit);
+            collectPrefix(words, p, result, limit);
+            return new ArrayList<>(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<T> findSimilar(String query, int limit) {
+        return findSimilar(query, limit, DEFAULT_MIN_SIMILARITY);
+    }
+
+    // Typo-tolerant lookup ranked by trigram similarity (Dice coefficient over padded trigrams),
+    // best first; ties by text
+    public List<T> findSimilar(String query, int limit, double minSimilarity) {
+        if (query == null) {
+            return Collections.emptyList();
+        }
+        Set<Long> queryGrams = trigrams(" " + fold(query) + " ");
+        if (queryGrams.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            Map<T, Integer> shared = new HashMap<>();
+            for (long gram : queryGrams) {
+                Set<T> posting = postings.get(gram);
+                if (posting != null) {
+                    for (T entity : posting) {
+                        shared.merge(entity, 1, Integer::sum);
+                    }
+                }
+            }
+            List<Scored<T>> scored = new ArrayList<>();
+            for (Map.Entry<T, Integer> e : shared.entrySet()) {
+                String text = foldedByEntity.get(e.getKey());
+                int gramCount = text.length(); // padded text of length n + 2 has n trigrams
+                double similarity = 2.0 * e.getValue() / (queryGrams.size() + gramCount);
+                if (similarity >= minSimilarity) {
+                    scored.add(new Scored<>(e.getKey(), text, similarity));
+                }
+            }
+            scored.sort((a, b) -> {
+                int c = Double.compare(b.similarity, a.similarity);
+                return c != 0 ? c : a.text.compareTo(b.text);
+            });
+            List<T> result = new ArrayList<>(Math.min(limit, scored.size()));
+            for (int i = 0; i < scored.size() && i < limit; i++) {
+                result.add(scored.get(i).entity);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return foldedByEntity.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static final class Scored<T> {
+        final T entity;
+        final String text;
+        final double similarity;
+
+        Scored(T entity, String text, double similarity) {
+            this.entity = entity;
+            this.text = text;
+            this.similarity = similarity;
+        }
+    }
+
+    // Caller holds the read lock
+    private void collectVerified(Set<T> candidates, List<Set<T>> required, String q, List<T> out, int limit) {
+        outer:
+        for (T entity : candidates) {
+            if (out.size() >= limit) {
+                return;
+            }
+            for (Set<T> posting : required) {
+                if (!posting.contains(entity)) {
+                    continue outer;
+                }
+            }
+            if (foldedByEntity.get(entity).contains(q)) {
+                out.add(entity);
+            }
+        }
+    }
+
+    // Caller holds the read lock. One or two characters: every entity on the posting of a trigram
+    // containing them is a hit. Postings are walked in place and the walk stops at the limit; an
+    // entity on several matching postings is taken once.
+    private void collectShortQuery(String q, List<T> out, int limit) {
+        Set<T> taken = new HashSet<>();
+        for (Map.Entry<Long, Set<T>> e : postings.entrySet()) {
+            if (out.size() >= limit) {
+                return;
+            }
+            if (!unpack(e.getKey()).contains(q)) {
+                continue;
+            }
+            for (T entity : e.getValue()) {
+                if (out.size() >= limit) {
+                    return;
+                }
+                if (taken.add(entity)) {
+                    out.add(entity);
+                }
+            }
+        }
+    }
+
+    // Caller holds the write lock
+    private void index(T entity, String folded) {
+        foldedByEntity.put(entity, folded);
+        for (long gram : trigrams(" " + folded + " ")) {
+            postings.computeIfAbsent(gram, g -> new LinkedHashSet<>()).add(entity);
+        }
+        texts.computeIfAbsent(folded, t -> new LinkedHashSet<>()).add(entity);
+        for (String word : words(folded)) {
+            words.computeIfAbsent(word, w -> new LinkedHashSet<>()).add(entity);
+        }
+    }
+
+    // Caller holds the write lock
+    private void unindex(T entity) {
+        String folded = foldedByEntity.remove(entity);
+        if (folded == null) {
+            return;
+        }
+        for (long gram : trigrams(" " + folded + " ")) {
+            detach(postings, gram, entity);
+        }
+        detach(texts, folded, entity);
+        for (String word : words(folded)) {
+            detach(words, word, entity);
+        }
+    }
+
+    private static <K, T> void detach(Map<K, Set<T>> map, K key, T entity) {
+        Set<T> set = map.get(key);
+        if (set != null && set.remove(entity) && set.isEmpty()) {
+            map.remove(key);
+        }
+    }
+
+    // The term maps are ordered, so the first term without the prefix ends the range
+    private static <T> void collectPrefix(TreeMap<String, Set<T>> terms, String prefix, Set<T> out, int limit) {
+        for (Map.Entry<String, Set<T>> e : terms.tailMap(prefix, true).entrySet()) {
+            if (out.size() >= limit || !e.getKey().startsWith(prefix)) {
+                return;
+            }
+            for (T entity : e.getValue()) {
+                if (out.size() >= limit) {
+                    return;
+                }
+                out.add(entity);
+            }
+        }
+    }
+
+    private static <T> List<T> take(Set<T> source, int limit) {
+        if (source == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        List<T> result = new ArrayList<>(Math.min(limit, source.size()));
+        for (T entity : source) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(entity);
+        }
+        return result;
+    }
+
+    // Words after the first (the first is covered by the whole-text map)
+    private static List<String> words(String folded) {
+        String[] parts = folded.split(" ");
+        List<String> result = new ArrayList<>(parts.length);
+        for (int i = 1; i < parts.length; i++) {
+            if (!parts[i].isEmpty()) {
+                result.add(parts[i]);
+            }
+        }
+        return result;
+    }
+
+    // Lower-case with runs of whitespace collapsed to one space
+    static String fold(String text) {
+        return text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private static Set<Long> trigrams(String s) {
+        Set<Long> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= s.length(); i++) {
+            grams.add(((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    private static String unpack(long gram) {
+        return new String(new char[]{(char) (gram >>> 32), (char) (gram >>> 16), (char) gram});
+    }
+}
@@ -0,0 +1,65 @@
+package src.service;
+
+import src.codec.CustomerRecordCodec;
+import src.codec.OrderRecordCodec;
+import src.codec.PartnerRecordCodec;
+import src.persistence.BulkSegment;
+import src.persistence.PersistenceException;
+import src.repository.CustomerRepository;
+import src.repository.OrderRepository;
+import src.repository.PartnerRepository;
+
+import java.io.IOException;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.file.Path;
+
+// Bulk export of the live repositories as one segment file per entity type
+// (customers.seg, partners.seg, orders.seg). Entities are streamed, never collected into lists.
+// Orders already moved to the archive are not part of the export.
+public class BulkExportService {
+
+    public static final String CUSTOMERS_FILE = "customers.seg";
+    public static final String PARTNERS_FILE = "partners.seg";
+    public static final String ORDERS_FILE = "orders.seg";
+
+    private final CustomerRepository customerRepository;
+    private final PartnerRepository partnerRepository;
+    private final OrderRepository orderRepository;
+
+    private final CustomerRecordCodec customerCodec = new CustomerRecordCodec();
+    private final PartnerRecordCodec partnerCodec = new PartnerRecordCodec();
+    private final OrderRecordCodec orderCodec = new OrderRecordCodec();
+
+    public BulkExportService(CustomerRepository customerRepository,
+                             PartnerRepository partnerRepository,
+                             OrderRepository orderRepository) {
+        this.customerRepository = customerRepository;
+        this.partnerRepository = partnerRepository;
+        this.orderRepository = orderRepository;
+    }
+
+    public void exportAll(Path directory) {
+        try {
+            long customers = BulkSegment.export(directory.resolve(CUSTOMERS_FILE), customerCodec, customerRepository::forEach);
+            long partners = BulkSegment.export(directory.resolve(PARTNERS_FILE), partnerCodec, partnerRepository::forEach);
+            long orders = BulkSegment.export(directory.resolve(ORDERS_FILE), orderCodec, orderRepository::forEach);
+            System.out.println("✓ Exported " + customers + " customers, " + partners + " partners, "
+                    + orders + " orders to " + directory);
+        } catch (IOException e) {
+            throw new PersistenceException("Bulk export to " + directory + " failed", e);
+        }
+    }
+
+    // Stream straight to a socket or pipe without going through a file
+    public long streamOrders(GatheringByteChannel out) throws IOException {
+        return BulkSegment.write(out, orderCodec, orderRepository::forEach);
+    }
+
+    public long streamPartners(GatheringByteChannel out) throws IOException {
+        return BulkSegment.write(out, partnerCodec, partnerRepository::forEach);
+    }
+
+    public long streamCustomers(GatheringByteChannel out) throws IOException {
+        return BulkSegment.write(out, customerCodec, customerRepository::forEach);
+    }
+}
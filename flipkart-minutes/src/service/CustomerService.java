@@ -2,36 +2,27 @@ package src.service;
 
 import src.models.Customer;
 import src.repository.CustomerRepository;
-import src.util.FileUtil;
+import src.util.BlockIdAllocator;
 
 public class CustomerService {
 
     private final CustomerRepository customerRepository;
     private final NotificationService notificationService;
-    private long customerIdCounter;
+    private final BlockIdAllocator customerIds;
 
     public CustomerService(CustomerRepository customerRepository,
                            NotificationService notificationService) {
         this.customerRepository = customerRepository;
         this.notificationService = notificationService;
-        this.customerIdCounter = loadLastCustomerId();
+        this.customerIds = new BlockIdAllocator("customer_counter.txt", 1L, 1_000);
     }
 
-    private long loadLastCustomerId() {
-        return FileUtil.loadCounter("customer_counter.txt", 1L);
-    }
-
-    private void saveCustomerId(long id) {
-        FileUtil.saveCounter("customer_counter.txt", id);
-    }
-
-    public synchronized Customer onboardCustomer(String name) {
+    public Customer onboardCustomer(String name) {
         return onboardCustomer(name, null);
     }
 
-    public synchronized Customer onboardCustomer(String name, String phone) {
-        long customerId = ++customerIdCounter;
-        saveCustomerId(customerId);
+    public Customer onboardCustomer(String name, String phone) {
+        long customerId = customerIds.nextId();
 
         Customer customer = new Customer(customerId, name);
         customer.setPhone(phone);
@@ -45,6 +36,10 @@ public class CustomerService {
     }
 
     public Customer getCustomer(long customerId) {
-        return customerRepository.findById(String.valueOf(customerId)).orElse(null);
+        return customerRepository.findById(customerId).orElse(null);
+    }
+
+    public void shutdown() {
+        customerIds.releaseUnused();
     }
-}
\ No newline at end of file
+}
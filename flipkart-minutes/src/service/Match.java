@@ -0,0 +1,20 @@
+package src.service;
+
+// An order paired with a partner by a MatchingEngine; still to be validated under the entity locks
+public final class Match {
+    private final long orderId;
+    private final long partnerId;
+
+    Match(long orderId, long partnerId) {
+        this.orderId = orderId;
+        this.partnerId = partnerId;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public long getPartnerId() {
+        return partnerId;
+    }
+}
@@ -0,0 +1,56 @@
+package src.service;
+
+import src.models.GeoLocation;
+
+// Pairs parked orders with available partners. The services only report transitions; assignment
+// workers (one per shard) block in awaitMatch and then validate the pair under the entity locks.
+public interface MatchingEngine {
+
+    // Orders without an SLA sort after every deadline, in arrival order
+    long NO_DEADLINE = Long.MAX_VALUE;
+
+    // Parked orders are served earliest assignment deadline first (epoch millis)
+    void submitOrder(long orderId, GeoLocation pickupLocation, long assignDeadlineMillis);
+
+    default void submitOrder(long orderId, GeoLocation pickupLocation) {
+        submitOrder(orderId, pickupLocation, NO_DEADLINE);
+    }
+
+    default void submitOrder(long orderId) {
+        submitOrder(orderId, null, NO_DEADLINE);
+    }
+
+    // Bulk feed: parallel arrays, pickupLocations entries may be null
+    default void submitOrders(long[] orderIds, GeoLocation[] pickupLocations, long[] assignDeadlinesMillis) {
+        for (int i = 0; i < orderIds.length; i++) {
+            submitOrder(orderIds[i], pickupLocations[i], assignDeadlinesMillis[i]);
+        }
+    }
+
+    // Put an order back in line (e.g. its partner went away mid-assignment); with its original
+    // deadline it goes straight back to its earliest-deadline-first position
+    default void resubmitOrder(long orderId, GeoLocation pickupLocation, long assignDeadlineMillis) {
+        submitOrder(orderId, pickupLocation, assignDeadlineMillis);
+    }
+
+    boolean withdrawOrder(long orderId);
+
+    void partnerAvailable(long partnerId, GeoLocation location);
+
+    default void partnerAvailable(long partnerId) {
+        partnerAvailable(partnerId, null);
+    }
+
+    boolean partnerUnavailable(long partnerId);
+
+    void partnerMoved(long partnerId, GeoLocation location);
+
+    // Number of independent match queues; run one assignment worker per shard
+    int getShardCount();
+
+    Match awaitMatch(int shard) throws InterruptedException;
+
+    int getParkedOrderCount();
+
+    int getAvailablePartnerCount();
+}
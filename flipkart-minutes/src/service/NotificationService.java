@@ -1,5 +1,6 @@
 package src.service;
 
+import src.enums.ExecutionMode;
 import src.repository.CustomerRepository;
 import src.repository.PartnerRepository;
 
@@ -7,52 +8,70 @@ import java.time.format.DateTimeFormatter;
 
 import src.models.Customer;
 import src.models.DeliveryPartner;
+import src.notification.*;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 
+// Callers only enqueue; name lookups, formatting and console output run on the dispatcher thread
 public class NotificationService {
 
     private final CustomerRepository customerRepository;
     private final PartnerRepository partnerRepository;
     private final DateTimeFormatter timeFormatter;
+    private final NotificationDispatcher dispatcher;
 
     public NotificationService(CustomerRepository customerRepository,
                                PartnerRepository partnerRepository) {
+        this(customerRepository, partnerRepository,
+                NotificationDispatcher.DEFAULT_CAPACITY, OverflowPolicy.COALESCE);
+    }
+
+    public NotificationService(CustomerRepository customerRepository,
+                               PartnerRepository partnerRepository,
+                               int queueCapacity,
+                               OverflowPolicy overflowPolicy) {
+        this(customerRepository, partnerRepository, queueCapacity, overflowPolicy, ExecutionMode.PLATFORM);
+    }
+
+    public NotificationService(CustomerRepository customerRepository,
+                               PartnerRepository partnerRepository,
+                               int queueCapacity,
+                               OverflowPolicy overflowPolicy,
+                               ExecutionMode executionMode) {
         this.customerRepository = customerRepository;
         this.partnerRepository = partnerRepository;
         this.timeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss");
+        this.dispatcher = new NotificationDispatcher(queueCapacity, overflowPolicy,
+                NotificationDispatcher.DEFAULT_BATCH_SIZE, executionMode);
+        dispatcher.addSink(new ConsoleNotificationSink(this::format));
     }
 
     // Simple constructor for basic usage
     public NotificationService() {
-        this.customerRepository = null;
-        this.partnerRepository = null;
-        this.timeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss");
+        this(null, null);
     }
 
-    public void notifyCustomer(long customerId, String message) {
-        String timestamp = LocalDateTime.now().format(timeFormatter);
-        String customerName = getCustomerName(customerId);
+    public void addSink(NotificationSink sink) {
+        dispatcher.addSink(sink);
+    }
 
-        System.out.println(String.format(
-                "[%s] CUSTOMER NOTIFICATION [%s - ID:%d]: %s",
-                timestamp, customerName, customerId, message
-        ));
+    public NotificationDispatcher getDispatcher() {
+        return dispatcher;
+    }
 
-        // In real system: send SMS, email, push notification
+    public void notifyCustomer(long customerId, String message) {
+        // In real system: send SMS, email, push notification (plug in a NotificationSink)
+        dispatcher.dispatch(new Notification(NotificationChannel.CUSTOMER, customerId, message));
     }
 
     public void notifyPartner(long partnerId, String message) {
-        String timestamp = LocalDateTime.now().format(timeFormatter);
-        String partnerName = getPartnerName(partnerId);
-
-        System.out.println(String.format(
-                "[%s] PARTNER NOTIFICATION [%s - ID:%d]: %s",
-                timestamp, partnerName, partnerId, message
-        ));
-
-        // In real system: send SMS, app notification
+        // In real system: send SMS, app notification (plug in a NotificationSink)
+        dispatcher.dispatch(new Notification(NotificationChannel.PARTNER, partnerId, message));
     }
 
     public void notifyOrderCreated(long customerId, long orderId, String itemName) {
@@ -61,6 +80,19 @@ public class NotificationService {
                         orderId, itemName));
     }
 
+    // One message per customer for a bulk feed instead of one per order
+    public void notifyOrdersCreated(long customerId, List<Long> orderIds) {
+        if (orderIds.size() == 1) {
+            notifyCustomer(customerId, "Order created: " + orderIds.get(0));
+            return;
+        }
+        StringBuilder ids = new StringBuilder();
+        for (long orderId : orderIds) {
+            ids.append(ids.length() == 0 ? "#" : ", #").append(orderId);
+        }
+        notifyCustomer(customerId, orderIds.size() + " orders created: " + ids);
+    }
+
     public void notifyOrderAssigned(long customerId, long orderId, long partnerId) {
         notifyCustomer(customerId,
                 String.format("Order #%d assigned to delivery partner #%d",
@@ -70,6 +102,12 @@ public class NotificationService {
                 String.format("New order #%d assigned to you", orderId));
     }
 
+    public void notifyOrderUnassigned(long customerId, long orderId) {
+        notifyCustomer(customerId,
+                String.format("Order #%d: your delivery partner is unavailable. Finding you another one.",
+                        orderId));
+    }
+
     public void notifyOrderPickedUp(long customerId, long orderId, long partnerId) {
         notifyCustomer(customerId,
                 String.format("Order #%d picked up by delivery partner. On the way!",
@@ -97,7 +135,7 @@ public class NotificationService {
     // Helper methods
     private String getCustomerName(long customerId) {
         if (customerRepository != null) {
-            return customerRepository.findById(String.valueOf(customerId))
+            return customerRepository.findById(customerId)
                     .map(Customer::getName)
                     .orElse("Customer");
         }
@@ -106,7 +144,7 @@ public class NotificationService {
 
     private String getPartnerName(long partnerId) {
         if (partnerRepository != null) {
-            return partnerRepository.findById(String.valueOf(partnerId))
+            return partnerRepository.findById(partnerId)
                     .map(DeliveryPartner::getName)
                     .orElse("Partner");
         }
@@ -115,12 +153,36 @@ public class NotificationService {
 
     // System notifications
     public void logSystemEvent(String event) {
-        String timestamp = LocalDateTime.now().format(timeFormatter);
-        System.out.println(String.format("[%s] SYSTEM: %s", timestamp, event));
+        dispatcher.dispatch(new Notification(NotificationChannel.SYSTEM, 0, event));
     }
 
     public void logError(String error) {
-        String timestamp = LocalDateTime.now().format(timeFormatter);
-        System.err.println(String.format("ERROR: %s", timestamp, error));
+        dispatcher.dispatch(new Notification(NotificationChannel.ERROR, 0, error));
+    }
+
+    // Flush queued notifications and stop the dispatcher thread
+    public void shutdown() {
+        dispatcher.shutdown(2, TimeUnit.SECONDS);
+    }
+
+    // Runs on the dispatcher thread
+    private String format(Notification notification) {
+        String timestamp = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(notification.getCreatedAtMillis()), ZoneId.systemDefault())
+                .format(timeFormatter);
+        long id = notification.getRecipientId();
+
+        switch (notification.getChannel()) {
+            case CUSTOMER:
+                return String.format("[%s] CUSTOMER NOTIFICATION [%s - ID:%d]: %s",
+                        timestamp, getCustomerName(id), id, notification.getMessage());
+            case PARTNER:
+                return String.format("[%s] PARTNER NOTIFICATION [%s - ID:%d]: %s",
+                        timestamp, getPartnerName(id), id, notification.getMessage());
+            case ERROR:
+                return String.format("[%s] ERROR: %s", timestamp, notification.getMessage());
+            default:
+                return String.format("[%s] SYSTEM: %s", timestamp, notification.getMessage());
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package src.service;
+
+import src.models.Order;
+import src.models.OrderRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Outcome of OrderService.createOrders, one item per request in request order
+public class OrderBatchResult {
+
+    public static final class Item {
+        private final OrderRequest request;
+        private final Order order;
+        private final String error;
+
+        private Item(OrderRequest request, Order order, String error) {
+            this.request = request;
+            this.order = order;
+            this.error = error;
+        }
+
+        public OrderRequest getRequest() {
+            return request;
+        }
+
+        public boolean isSuccess() {
+            return order != null;
+        }
+
+        // Null if the request was rejected
+        public Order getOrder() {
+            return order;
+        }
+
+        // Null if the order was created
+        public String getError() {
+            return error;
+        }
+    }
+
+    private final Item[] items;
+    private int successCount;
+
+    OrderBatchResult(int size) {
+        this.items = new Item[size];
+    }
+
+    void created(int index, OrderRequest request, Order order) {
+        items[index] = new Item(request, order, null);
+        successCount++;
+    }
+
+    void rejected(int index, OrderRequest request, String error) {
+        items[index] = new Item(request, null, error);
+    }
+
+    public List<Item> getItems() {
+        return Collections.unmodifiableList(Arrays.asList(items));
+    }
+
+    public Item get(int index) {
+        return items[index];
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    public int getSuccessCount() {
+        return successCount;
+    }
+
+    public int getFailureCount() {
+        return items.length - successCount;
+    }
+
+    public List<Order> getCreatedOrders() {
+        List<Order> orders = new ArrayList<>(successCount);
+        for (Item item : items) {
+            if (item.isSuccess()) {
+                orders.add(item.order);
+            }
+        }
+        return orders;
+    }
+}
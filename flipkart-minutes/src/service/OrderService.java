@@ -1,16 +1,28 @@
 package src.service;
 
+import src.enums.ExecutionMode;
+import src.enums.OrderPriority;
 import src.enums.OrderStatus;
+import src.enums.OrderTimeoutType;
 import src.enums.PartnerStatus;
+import src.events.LifecycleEvent;
+import src.events.LifecycleEventBus;
+import src.metrics.Counter;
+import src.metrics.LatencyHistogram;
+import src.metrics.MetricsRegistry;
 import src.models.*;
 import src.repository.*;
-
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.util.Optional;
+import src.util.BlockIdAllocator;
+import src.util.EntityLockManager;
+import src.util.ExecutionThreads;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicLong;
 
 public class OrderService {
 
@@ -18,121 +30,307 @@ public class OrderService {
     private final PartnerRepository partnerRepository;
     private final NotificationService notificationService;
 
-    private final AtomicLong orderIdCounter;
-    private final BlockingQueue<Long> pendingOrders;
+    private final MatchingEngine matchingEngine;
+    private final EntityLockManager lockManager;
+    private final OrderTimeoutScheduler timeouts;
+    private final LifecycleEventBus events;
+
+    private final LatencyHistogram createOrderTimer;
+    private final LatencyHistogram createOrdersTimer;
+    private final LatencyHistogram assignOrderTimer;
+    private final LatencyHistogram timeToAssign;
+    private final Counter ordersCreated;
+    private final Counter ordersAssigned;
+    private final Counter ordersCancelled;
+    private final Counter ordersAutoCancelled;
+
+    private final BlockIdAllocator orderIds;
     private final ExecutorService assignmentExecutor;
+    private ScheduledExecutorService archiver;
+
+    public OrderService(OrderRepository orderRepository,
+                        PartnerRepository partnerRepository,
+                        NotificationService notificationService,
+                        MatchingEngine matchingEngine,
+                        EntityLockManager lockManager,
+                        OrderTimeoutScheduler timeouts,
+                        LifecycleEventBus events,
+                        MetricsRegistry metrics) {
+        this(orderRepository, partnerRepository, notificationService, matchingEngine, lockManager,
+                timeouts, events, metrics, ExecutionMode.PLATFORM);
+    }
 
+    // VIRTUAL runs the assignment workers on virtual threads; they spend their life blocked in awaitMatch
     public OrderService(OrderRepository orderRepository,
                         PartnerRepository partnerRepository,
-                        NotificationService notificationService) {
+                        NotificationService notificationService,
+                        MatchingEngine matchingEngine,
+                        EntityLockManager lockManager,
+                        OrderTimeoutScheduler timeouts,
+                        LifecycleEventBus events,
+                        MetricsRegistry metrics,
+                        ExecutionMode executionMode) {
         this.orderRepository = orderRepository;
         this.partnerRepository = partnerRepository;
         this.notificationService = notificationService;
-
-        this.orderIdCounter = new AtomicLong(loadLastOrderId());
-        this.pendingOrders = new LinkedBlockingQueue<>();
-        this.assignmentExecutor = Executors.newSingleThreadExecutor();
-
+        this.matchingEngine = matchingEngine;
+        this.lockManager = lockManager;
+        this.timeouts = timeouts;
+        this.events = events;
+
+        this.createOrderTimer = metrics.histogram("createOrder", "ns");
+        this.createOrdersTimer = metrics.histogram("createOrders", "ns");
+        this.assignOrderTimer = metrics.histogram("assignOrderToPartner", "ns");
+        this.timeToAssign = metrics.histogram("order.timeToAssign", "ms");
+        this.ordersCreated = metrics.counter("orders.created");
+        this.ordersAssigned = metrics.counter("orders.assigned");
+        this.ordersCancelled = metrics.counter("orders.cancelled");
+        this.ordersAutoCancelled = metrics.counter("orders.autoCancelled");
+        metrics.gauge("pendingOrders", matchingEngine::getParkedOrderCount);
+
+        this.orderIds = new BlockIdAllocator("order_counter.txt", 1000L);
+        int workers = matchingEngine.getShardCount();
+        this.assignmentExecutor = Executors.newFixedThreadPool(workers,
+                ExecutionThreads.factory(executionMode, "assignment-", false));
+
+        timeouts.setHandler(this::handleTimeout);
+        seedMatchingEngine();
         startAutoAssignment();
     }
 
-    private long loadLastOrderId() {
-        try {
-            String content = Files.readString(Paths.get("data/metadata/order_counter.txt"));
-            return Long.parseLong(content.trim());
-        } catch (Exception e) {
-            return 1000;
+    // Register partners/orders that already exist so the engine starts from the repository state
+    private void seedMatchingEngine() {
+        for (DeliveryPartner partner : partnerRepository.findAvailablePartners()) {
+            matchingEngine.partnerAvailable(partner.getPartnerId(), partner.getLocation());
         }
+        orderRepository.forEachByStatus(OrderStatus.PENDING, order -> {
+            matchingEngine.submitOrder(order.getOrderId(), order.getPickupLocation(), order.getAssignDeadlineMillis());
+            timeouts.orderCreated(order.getOrderId(), order.getCreatedAt());
+            return true;
+        });
+        orderRepository.forEachByStatus(OrderStatus.ASSIGNED, order -> {
+            timeouts.orderCreated(order.getOrderId(), order.getCreatedAt());
+            timeouts.orderAssigned(order.getOrderId());
+            return true;
+        });
+        orderRepository.forEachByStatus(OrderStatus.PICKED_UP, order -> {
+            timeouts.orderPickedUp(order.getOrderId());
+            return true;
+        });
     }
 
-    private void saveOrderId(long id) {
-        try {
-            Files.createDirectories(Paths.get("data/metadata"));
-            Files.writeString(Paths.get("data/metadata/order_counter.txt"),
-                    String.valueOf(id));
-        } catch (IOException e) {
+    public Order createOrder(long customerId, String itemName) {
+        return createOrder(customerId, itemName, null, null);
+    }
 
-        }
+    // With a pickup point the order is matched to the nearest available partner
+    public Order createOrder(long customerId, String itemName,
+                             GeoLocation pickupLocation, GeoLocation dropLocation) {
+        return createOrder(customerId, itemName, pickupLocation, dropLocation, OrderPriority.STANDARD);
     }
 
-    public Order createOrder(long customerId, String itemName) {
-        long orderId = orderIdCounter.incrementAndGet();
-        saveOrderId(orderId);
+    // Higher priority classes get a tighter assignment deadline and jump ahead of parked orders.
+    // A null priority means STANDARD, as in createOrders.
+    public Order createOrder(long customerId, String itemName, GeoLocation pickupLocation,
+                             GeoLocation dropLocation, OrderPriority priority) {
+        // Same rules as the batch path, checked before an id is taken
+        String error = validate(customerId, itemName);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        long start = System.nanoTime();
+        long orderId = orderIds.nextId();
 
-        Order order = new Order(orderId, customerId, itemName);
+        Order order = new Order(orderId, customerId, itemName, pickupLocation, dropLocation);
+        if (priority != null) {
+            order.setPriority(priority);
+        }
         orderRepository.save(order);
+        timeouts.orderCreated(orderId, order.getCreatedAt());
+        // Before submitting, so ORDER_CREATED always precedes the ORDER_ASSIGNED it can lead to
+        events.orderCreated(orderId, customerId);
 
-        pendingOrders.offer(orderId);
+        matchingEngine.submitOrder(orderId, pickupLocation, order.getAssignDeadlineMillis());
         notificationService.notifyCustomer(customerId, "Order created: " + orderId);
 
+        ordersCreated.increment();
+        createOrderTimer.record(System.nanoTime() - start);
         return order;
     }
 
-    public boolean cancelOrder(long orderId) {
-        Optional<Order> optOrder = orderRepository.findById(String.valueOf(orderId));
+    // Bulk feed: one id block, one repository insert (one log append), one matching-engine enqueue
+    // and one notification per customer. Invalid requests fail individually; the rest go through.
+    public OrderBatchResult createOrders(List<OrderRequest> requests) {
+        long start = System.nanoTime();
+        OrderBatchResult result = new OrderBatchResult(requests.size());
+
+        int[] accepted = new int[requests.size()];
+        int count = 0;
+        for (int i = 0; i < requests.size(); i++) {
+            OrderRequest request = requests.get(i);
+            String error = validate(request);
+            if (error != null) {
+                result.rejected(i, request, error);
+            } else {
+                accepted[count++] = i;
+            }
+        }
+        if (count == 0) {
+            return result;
+        }
 
-        if (optOrder.isEmpty()) {
-            return false;
+        long firstId = orderIds.nextIds(count);
+        List<Order> orders = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            OrderRequest request = requests.get(accepted[k]);
+            Order order = new Order(firstId + k, request.getCustomerId(), request.getItemName(),
+                    request.getPickupLocation(), request.getDropLocation());
+            if (request.getPriority() != null) {
+                order.setPriority(request.getPriority());
+            }
+            orders.add(order);
+        }
+        orderRepository.saveAll(orders);
+
+        long[] ids = new long[count];
+        GeoLocation[] pickups = new GeoLocation[count];
+        long[] deadlines = new long[count];
+        Map<Long, List<Long>> createdByCustomer = new LinkedHashMap<>();
+        for (int k = 0; k < count; k++) {
+            Order order = orders.get(k);
+            timeouts.orderCreated(order.getOrderId(), order.getCreatedAt());
+            events.orderCreated(order.getOrderId(), order.getCustomerId());
+            ids[k] = order.getOrderId();
+            pickups[k] = order.getPickupLocation();
+            deadlines[k] = order.getAssignDeadlineMillis();
+            createdByCustomer.computeIfAbsent(order.getCustomerId(), id -> new ArrayList<>()).add(order.getOrderId());
+            result.created(accepted[k], requests.get(accepted[k]), order);
         }
+        matchingEngine.submitOrders(ids, pickups, deadlines);
+        createdByCustomer.forEach(notificationService::notifyOrdersCreated);
 
-        Order order = optOrder.get();
+        ordersCreated.add(count);
+        createOrdersTimer.record(System.nanoTime() - start);
+        return result;
+    }
 
-        if (order.getStatus() == OrderStatus.PICKED_UP ||
-                order.getStatus() == OrderStatus.DELIVERED) {
-            return false;
+    // Null if the request is acceptable
+    private static String validate(OrderRequest request) {
+        if (request == null) {
+            return "Missing order request";
         }
+        return validate(request.getCustomerId(), request.getItemName());
+    }
 
-        order.setStatus(OrderStatus.CANCELLED);
-        orderRepository.save(order);
+    private static String validate(long customerId, String itemName) {
+        if (customerId <= 0) {
+            return "Invalid customer id: " + customerId;
+        }
+        if (itemName == null || itemName.isBlank()) {
+            return "Item name is required";
+        }
+        return null;
+    }
+
+    public boolean cancelOrder(long orderId) {
+        Order cancelled = lockManager.withOrder(orderId, () -> {
+            Order order = orderRepository.getById(orderId);
+
+            if (order == null) {
+                return null;
+            }
+
+            if (order.getStatus() == OrderStatus.PICKED_UP ||
+                    order.getStatus() == OrderStatus.DELIVERED ||
+                    order.getStatus() == OrderStatus.CANCELLED) {
+                return null;
+            }
+
+            order.setStatus(OrderStatus.CANCELLED);
+            orderRepository.save(order);
 
-        if (order.getAssignedPartnerId() != null) {
-            partnerRepository.findById(String.valueOf(order.getAssignedPartnerId()))
-                    .ifPresent(partner -> {
-                        partner.setStatus(PartnerStatus.AVAILABLE);
-                        partner.setCurrentOrderId(null);
-                        partnerRepository.save(partner);
-                    });
+            Long partnerId = order.getAssignedPartnerId();
+            if (partnerId != null) {
+                // Order stripe is held, partner stripe second - same order as assignment
+                lockManager.withPartner(partnerId, () -> {
+                    releasePartner(partnerId, orderId);
+                    return null;
+                });
+            }
+
+            matchingEngine.withdrawOrder(orderId);
+            timeouts.orderClosed(orderId);
+            events.orderCancelled(orderId, order.getCustomerId(),
+                    partnerId != null ? partnerId : LifecycleEvent.NO_ID);
+            return order;
+        });
+
+        if (cancelled == null) {
+            return false;
         }
+        ordersCancelled.increment();
 
-        pendingOrders.remove(orderId);
-        notificationService.notifyCustomer(order.getCustomerId(),
+        notificationService.notifyCustomer(cancelled.getCustomerId(),
                 "Order cancelled: " + orderId);
 
         return true;
     }
 
-    private void startAutoAssignment() {
-        assignmentExecutor.submit(() -> {
-            while (!Thread.currentThread().isInterrupted()) {
-                try {
-                    Long orderId = pendingOrders.take();
-                    assignOrderToPartner(orderId);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
-                }
-            }
-        });
+    // Caller holds the partner stripe. Only frees the partner if it is still on this order,
+    // so a late or repeated cancel can't release a partner already serving someone else.
+    private void releasePartner(long partnerId, long orderId) {
+        DeliveryPartner partner = partnerRepository.getById(partnerId);
+        if (partner == null) {
+            return;
+        }
+        Long currentOrderId = partner.getCurrentOrderId();
+        if (currentOrderId == null || currentOrderId != orderId) {
+            return;
+        }
+        partner.setStatus(PartnerStatus.AVAILABLE);
+        partner.setCurrentOrderId(null);
+        partnerRepository.save(partner);
+        events.partnerStatusChanged(partnerId, PartnerStatus.AVAILABLE);
+        matchingEngine.partnerAvailable(partnerId, partner.getLocation());
     }
 
-    private synchronized void assignOrderToPartner(long orderId) {
-        Optional<Order> optOrder = orderRepository.findById(String.valueOf(orderId));
-
-        if (optOrder.isEmpty() ||
-                optOrder.get().getStatus() == OrderStatus.CANCELLED) {
-            return;
+    // One worker per engine shard; each only blocks on its own shard
+    private void startAutoAssignment() {
+        for (int shard = 0; shard < matchingEngine.getShardCount(); shard++) {
+            int worker = shard;
+            assignmentExecutor.submit(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    try {
+                        Match match = matchingEngine.awaitMatch(worker);
+                        assignOrderToPartner(match.getOrderId(), match.getPartnerId());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            });
         }
+    }
 
-        Order order = optOrder.get();
+    private void assignOrderToPartner(long orderId, long partnerId) {
+        long start = System.nanoTime();
+        boolean assigned = lockManager.withOrderAndPartner(orderId, partnerId, () -> {
+            Order order = orderRepository.getById(orderId);
+            DeliveryPartner partner = partnerRepository.getById(partnerId);
 
-        // Find available partner
-        Optional<DeliveryPartner> availablePartner = partnerRepository.findAll()
-                .stream()
-                .filter(p -> p.getStatus() == PartnerStatus.AVAILABLE)
-                .findFirst();
+            if (order == null || order.getStatus() != OrderStatus.PENDING) {
+                // Order went away while parked - the partner is still free
+                if (partner != null && partner.getStatus() == PartnerStatus.AVAILABLE) {
+                    matchingEngine.partnerAvailable(partnerId, partner.getLocation());
+                }
+                return false;
+            }
 
-        if (availablePartner.isPresent()) {
-            DeliveryPartner partner = availablePartner.get();
+            if (partner == null || partner.getStatus() != PartnerStatus.AVAILABLE) {
+                // Partner changed state after it was pooled - order keeps its place in line
+                matchingEngine.resubmitOrder(orderId, order.getPickupLocation(), order.getAssignDeadlineMillis());
+                return false;
+            }
 
             order.setStatus(OrderStatus.ASSIGNED);
             order.setAssignedPartnerId(partner.getPartnerId());
@@ -141,21 +339,81 @@ public class OrderService {
             partner.setStatus(PartnerStatus.BUSY);
             partner.setCurrentOrderId(orderId);
             partnerRepository.save(partner);
+            timeouts.orderAssigned(orderId);
+            events.orderAssigned(orderId, order.getCustomerId(), partnerId);
+            events.partnerStatusChanged(partnerId, PartnerStatus.BUSY);
+            if (order.getCreatedAt() != null) {
+                timeToAssign.record(Duration.between(order.getCreatedAt(), LocalDateTime.now()).toMillis());
+            }
+            return true;
+        });
 
-            notificationService.notifyPartner(partner.getPartnerId(),
+        if (assigned) {
+            notificationService.notifyPartner(partnerId,
                     "New order assigned: " + orderId);
-        } else {
-            // Put back in queue
-            pendingOrders.offer(orderId);
+            ordersAssigned.increment();
+        }
+        assignOrderTimer.record(System.nanoTime() - start);
+    }
+
+    // Runs on the timer thread. Every branch re-checks the order, since a transition may have
+    // landed between the deadline passing and the handler running.
+    private void handleTimeout(long orderId, OrderTimeoutType type) {
+        Order order = getOrderStatus(orderId);
+        if (order == null) {
+            return;
+        }
+        switch (type) {
+            case AUTO_CANCEL:
+                if (cancelOrder(orderId)) {
+                    ordersAutoCancelled.increment();
+                    notificationService.logSystemEvent("Order auto-cancelled (not picked up in time): " + orderId);
+                }
+                break;
+            case PICKUP_SLA:
+                if (order.getStatus() == OrderStatus.ASSIGNED) {
+                    notificationService.logError("Pickup SLA breached for order " + orderId
+                            + " (partner " + order.getAssignedPartnerId() + ")");
+                }
+                break;
+            case DELIVERY_SLA:
+                if (order.getStatus() == OrderStatus.PICKED_UP) {
+                    notificationService.logError("Delivery SLA breached for order " + orderId
+                            + " (partner " + order.getAssignedPartnerId() + ")");
+                }
+                break;
         }
     }
 
     public Order getOrderStatus(long orderId) {
-        return orderRepository.findById(String.valueOf(orderId)).orElse(null);
+        return orderRepository.getById(orderId);
+    }
+
+    // Periodically move delivered/cancelled orders older than `retention` into the repository's archive
+    public synchronized void startArchiving(Duration retention, Duration interval) {
+        if (archiver != null) {
+            return;
+        }
+        archiver = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "order-archiver");
+            t.setDaemon(true);
+            return t;
+        });
+        archiver.scheduleWithFixedDelay(() -> {
+            try {
+                orderRepository.archiveTerminalOrders(LocalDateTime.now().minus(retention));
+            } catch (RuntimeException e) {
+                System.err.println("Error: order archiving failed: " + e.getMessage());
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
     }
 
     public void shutdown() {
-        saveOrderId(orderIdCounter.get());
+        synchronized (this) {
+            if (archiver != null) {
+                archiver.shutdownNow();
+            }
+        }
         assignmentExecutor.shutdownNow();
         try {
             if (!assignmentExecutor.awaitTermination(2, java.util.concurrent.TimeUnit.SECONDS)) {
@@ -164,5 +422,6 @@ public class OrderService {
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
+        orderIds.releaseUnused();
     }
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package src.service;
+
+import src.enums.OrderTimeoutType;
+import src.util.HashedTimingWheel;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Per-order deadlines on a timing wheel: auto-cancel for orders nobody picked up, plus pickup and
+// delivery SLA breaches. Hooks are called from inside the order's lock, so for one order they run
+// in transition order; timers are cancelled as soon as they can no longer fire meaningfully.
+public class OrderTimeoutScheduler {
+
+    public static final Duration DEFAULT_AUTO_CANCEL = Duration.ofMinutes(30);
+    public static final Duration DEFAULT_PICKUP_SLA = Duration.ofMinutes(10);
+    public static final Duration DEFAULT_DELIVERY_SLA = Duration.ofMinutes(20);
+
+    public interface TimeoutHandler {
+        void onTimeout(long orderId, OrderTimeoutType type);
+    }
+
+    private final HashedTimingWheel wheel;
+    private final Duration autoCancelAfter;
+    private final Duration pickupSla;
+    private final Duration deliverySla;
+    private final Map<OrderTimeoutType, Map<Long, HashedTimingWheel.Timeout>> timers =
+            new EnumMap<>(OrderTimeoutType.class);
+    private volatile TimeoutHandler handler = (orderId, type) -> { };
+
+    public OrderTimeoutScheduler() {
+        this(DEFAULT_AUTO_CANCEL, DEFAULT_PICKUP_SLA, DEFAULT_DELIVERY_SLA);
+    }
+
+    public OrderTimeoutScheduler(Duration autoCancelAfter, Duration pickupSla, Duration deliverySla) {
+        this(new HashedTimingWheel("order-timeouts", 1, TimeUnit.SECONDS),
+                autoCancelAfter, pickupSla, deliverySla);
+    }
+
+    public OrderTimeoutScheduler(HashedTimingWheel wheel, Duration autoCancelAfter,
+                                 Duration pickupSla, Duration deliverySla) {
+        this.wheel = wheel;
+        this.autoCancelAfter = autoCancelAfter;
+        this.pickupSla = pickupSla;
+        this.deliverySla = deliverySla;
+        for (OrderTimeoutType type : OrderTimeoutType.values()) {
+            timers.put(type, new ConcurrentHashMap<>());
+        }
+    }
+
+    public void setHandler(TimeoutHandler handler) {
+        this.handler = handler;
+    }
+
+    // Auto-cancel counts from creation, so recovered orders keep their original deadline
+    public void orderCreated(long orderId, LocalDateTime createdAt) {
+        Duration remaining = Duration.between(LocalDateTime.now(), createdAt.plus(autoCancelAfter));
+        schedule(orderId, OrderTimeoutType.AUTO_CANCEL, remaining.isNegative() ? Duration.ZERO : remaining);
+    }
+
+    public void orderAssigned(long orderId) {
+        schedule(orderId, OrderTimeoutType.PICKUP_SLA, pickupSla);
+    }
+
+    // Back in the pool (its partner went away before pickup); auto-cancel keeps running
+    public void orderUnassigned(long orderId) {
+        cancel(orderId, OrderTimeoutType.PICKUP_SLA);
+    }
+
+    // Past pickup the order can no longer be cancelled; only the delivery SLA remains
+    public void orderPickedUp(long orderId) {
+        cancel(orderId, OrderTimeoutType.AUTO_CANCEL);
+        cancel(orderId, OrderTimeoutType.PICKUP_SLA);
+        schedule(orderId, OrderTimeoutType.DELIVERY_SLA, deliverySla);
+    }
+
+    // Delivered or cancelled
+    public void orderClosed(long orderId) {
+        for (OrderTimeoutType type : OrderTimeoutType.values()) {
+            cancel(orderId, type);
+        }
+    }
+
+    public int getPendingCount() {
+        return wheel.getPendingCount();
+    }
+
+    public void shutdown() {
+        wheel.close();
+    }
+
+    private void schedule(long orderId, OrderTimeoutType type, Duration delay) {
+        HashedTimingWheel.Timeout timeout =
+                wheel.schedule(() -> fire(orderId, type), delay.toMillis(), TimeUnit.MILLISECONDS);
+        HashedTimingWheel.Timeout previous = timers.get(type).put(orderId, timeout);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private void cancel(long orderId, OrderTimeoutType type) {
+        HashedTimingWheel.Timeout timeout = timers.get(type).remove(orderId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    private void fire(long orderId, OrderTimeoutType type) {
+        // Drop our own entry; a newer pending timer for the same order stays
+        timers.get(type).computeIfPresent(orderId, (id, timeout) -> timeout.isExpired() ? null : timeout);
+        handler.onTimeout(orderId, type);
+    }
+}
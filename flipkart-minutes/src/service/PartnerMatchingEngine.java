@@ -0,0 +1,345 @@
+package src.service;
+
+import src.geo.GeoGridIndex;
+import src.models.GeoLocation;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Event-driven matching: orders park here until a partner transition makes a match possible.
+// Nothing spins - the assignment thread sleeps on a condition until both sides are non-empty.
+public class PartnerMatchingEngine implements MatchingEngine {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition matchPossible = lock.newCondition();
+    // Set by nudge(): the next pollMatch returns without a match
+    private boolean nudged;
+
+    // Parked orders, earliest assignment deadline first; cancel removes by id in O(log n)
+    private final PendingOrderQueue parkedOrders = new PendingOrderQueue();
+    private final Map<Long, GeoLocation> parkedPickups = new HashMap<>();
+
+    // Constant-time pool of AVAILABLE partners, handed out in the order they became free
+    private final Set<Long> availablePartners = new LinkedHashSet<>();
+
+    // Pooled partners with a known position; orders with a pickup point take the nearest one.
+    // Moves update it without the engine lock (see partnerMoved).
+    private final GeoGridIndex partnerLocations;
+
+    public PartnerMatchingEngine() {
+        this(new GeoGridIndex());
+    }
+
+    public PartnerMatchingEngine(GeoGridIndex partnerLocations) {
+        this.partnerLocations = partnerLocations;
+    }
+
+    // Park a new order until a partner is free
+    @Override
+    public void submitOrder(long orderId, GeoLocation pickupLocation, long assignDeadlineMillis) {
+        lock.lock();
+        try {
+            if (parkedOrders.add(orderId, assignDeadlineMillis)) {
+                rememberPickup(orderId, pickupLocation);
+                signalIfMatchable();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The whole batch is parked under one lock hold, with one wake-up
+    @Override
+    public void submitOrders(long[] orderIds, GeoLocation[] pickupLocations, long[] assignDeadlinesMillis) {
+        lock.lock();
+        try {
+            for (int i = 0; i < orderIds.length; i++) {
+                if (parkedOrders.add(orderIds[i], assignDeadlinesMillis[i])) {
+                    rememberPickup(orderIds[i], pickupLocations[i]);
+                }
+            }
+            signalIfMatchable();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Remove a parked order (cancellation); returns false if it was not parked
+    @Override
+    public boolean withdrawOrder(long orderId) {
+        lock.lock();
+        try {
+            parkedPickups.remove(orderId);
+            return parkedOrders.remove(orderId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Partner transitioned to AVAILABLE (onboarded, delivered, freed by cancel, back online)
+    @Override
+    public void partnerAvailable(long partnerId, GeoLocation location) {
+        lock.lock();
+        try {
+            if (availablePartners.add(partnerId)) {
+                if (location != null) {
+                    partnerLocations.put(partnerId, location);
+                }
+                signalIfMatchable();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Partner left the pool (went BUSY or OFFLINE)
+    @Override
+    public boolean partnerUnavailable(long partnerId) {
+        lock.lock();
+        try {
+            partnerLocations.remove(partnerId);
+            return availablePartners.remove(partnerId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Location ping. Pooled partners already in the grid move without the engine lock; the
+    // per-id compute in the grid orders this against a concurrent removal, so nothing resurrects.
+    @Override
+    public void partnerMoved(long partnerId, GeoLocation location) {
+        if (partnerLocations.moveIfPresent(partnerId, location)) {
+            return;
+        }
+        // First fix for a pooled partner that joined without a location
+        lock.lock();
+        try {
+            if (availablePartners.contains(partnerId)) {
+                partnerLocations.put(partnerId, location);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Blocks until one parked order and one available partner exist, then pairs them
+    public Match awaitMatch() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            Match match;
+            while ((match = tryMatch()) == null) {
+                matchPossible.await();
+            }
+            return match;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Single engine: the only shard
+    @Override
+    public Match awaitMatch(int shard) throws InterruptedException {
+        return awaitMatch();
+    }
+
+    @Override
+    public int getShardCount() {
+        return 1;
+    }
+
+    // awaitMatch with a deadline; null on timeout or after a nudge
+    public Match pollMatch(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            Match match;
+            while ((match = tryMatch()) == null) {
+                if (nudged) {
+                    nudged = false;
+                    return null;
+                }
+                if (remaining <= 0) {
+                    return null;
+                }
+                remaining = matchPossible.awaitNanos(remaining);
+            }
+            return match;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Wakes the pollMatch waiter without a match - the sharded engine's cue to rebalance now
+    void nudge() {
+        lock.lock();
+        try {
+            if (!nudged) {
+                nudged = true;
+                matchPossible.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // More parked orders than free partners: a shard with spare partners can take the rest
+    boolean hasSurplusOrders() {
+        lock.lock();
+        try {
+            return parkedOrders.size() > availablePartners.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Free partners and nothing parked: a shard with orders and no partners can take one
+    boolean hasSurplusPartners() {
+        lock.lock();
+        try {
+            return parkedOrders.isEmpty() && !availablePartners.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Work stealing (see ShardedMatchingEngine). Only the surplus is given up - parked orders
+    // beyond the free partners here, free partners when nothing is parked - so two shards never
+    // trade the same item back and forth. The most urgent orders go first; an idle thief serves them soonest.
+    int stealOrders(int max, List<Handoff> out) {
+        lock.lock();
+        try {
+            int surplus = Math.min(max, parkedOrders.size() - availablePartners.size());
+            int stolen = 0;
+            while (stolen < surplus) {
+                long deadline = parkedOrders.peekDeadline();
+                long orderId = parkedOrders.poll();
+                out.add(new Handoff(orderId, parkedPickups.remove(orderId), deadline));
+                stolen++;
+            }
+            return stolen;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // A partner another shard may take (PendingOrderQueue.NONE if this shard needs its partners)
+    long stealablePartner() {
+        lock.lock();
+        try {
+            if (!parkedOrders.isEmpty() || availablePartners.isEmpty()) {
+                return PendingOrderQueue.NONE;
+            }
+            return availablePartners.iterator().next();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Takes that partner out of the pool; null if it was matched, withdrawn or is needed here now
+    Handoff stealPartner(long partnerId) {
+        lock.lock();
+        try {
+            if (!parkedOrders.isEmpty() || !availablePartners.remove(partnerId)) {
+                return null;
+            }
+            GeoLocation location = partnerLocations.locationOf(partnerId);
+            partnerLocations.remove(partnerId);
+            return new Handoff(partnerId, location, NO_DEADLINE);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static final class Handoff {
+        final long id;
+        final GeoLocation location;
+        final long deadlineMillis; // orders only
+
+        Handoff(long id, GeoLocation location, long deadlineMillis) {
+            this.id = id;
+            this.location = location;
+            this.deadlineMillis = deadlineMillis;
+        }
+    }
+
+    @Override
+    public int getParkedOrderCount() {
+        lock.lock();
+        try {
+            return parkedOrders.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getAvailablePartnerCount() {
+        lock.lock();
+        try {
+            return availablePartners.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Set<Long> getAvailablePartnerIds() {
+        lock.lock();
+        try {
+            return Collections.unmodifiableSet(new LinkedHashSet<>(availablePartners));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public GeoGridIndex getPartnerLocations() {
+        return partnerLocations;
+    }
+
+    // Caller must hold the lock and the pool must be non-empty. Nearest partner when both sides
+    // have a position, otherwise the longest-waiting one.
+    private long takePartner(GeoLocation pickup) {
+        if (pickup != null && partnerLocations.size() > 0) {
+            long nearest = partnerLocations.nearest(pickup);
+            if (nearest >= 0 && availablePartners.remove(nearest)) {
+                partnerLocations.remove(nearest);
+                return nearest;
+            }
+        }
+        Iterator<Long> it = availablePartners.iterator();
+        long partnerId = it.next();
+        it.remove();
+        partnerLocations.remove(partnerId);
+        return partnerId;
+    }
+
+    // Caller must hold the lock. Pairs the most urgent parked order with a partner, or returns null.
+    private Match tryMatch() {
+        if (parkedOrders.isEmpty() || availablePartners.isEmpty()) {
+            return null;
+        }
+        long orderId = parkedOrders.poll();
+        return new Match(orderId, takePartner(parkedPickups.remove(orderId)));
+    }
+
+    // Caller must hold the lock
+    private void rememberPickup(long orderId, GeoLocation pickupLocation) {
+        if (pickupLocation != null) {
+            parkedPickups.put(orderId, pickupLocation);
+        }
+    }
+
+    // Caller must hold the lock
+    private void signalIfMatchable() {
+        if (!parkedOrders.isEmpty() && !availablePartners.isEmpty()) {
+            matchPossible.signal();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package src.service;
+
+import src.util.ConcurrentLongMap;
+import src.util.HashedTimingWheel;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Online presence from partner app heartbeats. A heartbeat only stamps the session's last-seen
+// time: no lock, no allocation, no timer work. Each online session has one check on a timing wheel
+// at lastSeen + ttl; when it fires it re-arms for the remainder if a heartbeat came in meanwhile,
+// otherwise the session expires. Timer work is therefore about one wheel entry per partner per
+// ttl, whatever the heartbeat rate, and nothing ever scans all partners.
+// Partners that never send a heartbeat are not tracked (and never expire).
+public class PartnerPresenceTracker {
+
+    public static final Duration DEFAULT_TTL = Duration.ofSeconds(30);
+
+    public interface ExpiryHandler {
+        // Runs on the timer thread. False if the partner can't be taken offline yet (e.g. carrying
+        // an order); the session stays expired and the handler is asked again after another ttl.
+        boolean onExpired(long partnerId);
+    }
+
+    private static final class Session {
+        volatile long lastSeenNanos;
+        volatile boolean online;
+
+        // Guarded by the session's monitor
+        HashedTimingWheel.Timeout check;
+        long generation; // of the armed check; a check that fired after being replaced sees a newer one
+        boolean expired;
+
+        Session(long lastSeenNanos) {
+            this.lastSeenNanos = lastSeenNanos;
+        }
+    }
+
+    private final HashedTimingWheel wheel;
+    private final long ttlNanos;
+    private final ConcurrentLongMap<Session> sessions = new ConcurrentLongMap<>();
+    private volatile ExpiryHandler handler = partnerId -> true;
+
+    public PartnerPresenceTracker() {
+        this(DEFAULT_TTL);
+    }
+
+    public PartnerPresenceTracker(Duration ttl) {
+        this(new HashedTimingWheel("partner-presence", 100, TimeUnit.MILLISECONDS), ttl);
+    }
+
+    public PartnerPresenceTracker(HashedTimingWheel wheel, Duration ttl) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive: " + ttl);
+        }
+        this.wheel = wheel;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public void setHandler(ExpiryHandler handler) {
+        this.handler = handler;
+    }
+
+    // True if this heartbeat brought the partner back after an expiry (not on the first one)
+    public boolean heartbeat(long partnerId) {
+        long now = System.nanoTime();
+        Session session = sessions.get(partnerId);
+        if (session != null) {
+            session.lastSeenNanos = now;
+            // Written before this read; expire() re-reads lastSeen after clearing online, so one
+            // of the two sides always sees the other
+            if (session.online) {
+                return false;
+            }
+        }
+        return resume(partnerId, now);
+    }
+
+    public boolean isOnline(long partnerId) {
+        Session session = sessions.get(partnerId);
+        return session != null && session.online;
+    }
+
+    // Partner logged off (or left): stop tracking until the next heartbeat
+    public void remove(long partnerId) {
+        Session session = sessions.remove(partnerId);
+        if (session != null) {
+            synchronized (session) {
+                session.online = false;
+                if (session.check != null) {
+                    session.check.cancel();
+                    session.check = null;
+                }
+                session.generation++;
+            }
+        }
+    }
+
+    public int getTrackedCount() {
+        return sessions.size();
+    }
+
+    public void shutdown() {
+        wheel.close();
+    }
+
+    // Cold path: first heartbeat, or the first one after an expiry
+    private boolean resume(long partnerId, long now) {
+        Session session;
+        synchronized (sessions) {
+            session = sessions.get(partnerId);
+            if (session == null) {
+                session = new Session(now);
+                sessions.put(partnerId, session);
+            }
+        }
+        synchronized (session) {
+            if (session.online || sessions.get(partnerId) != session) {
+                return false; // another heartbeat got here first, or removed meanwhile
+            }
+            session.online = true;
+            arm(partnerId, session, ttlNanos);
+            boolean resumed = session.expired;
+            session.expired = false;
+            return resumed;
+        }
+    }
+
+    // Caller holds the session's monitor
+    private void arm(long partnerId, Session session, long delayNanos) {
+        if (session.check != null) {
+            session.check.cancel();
+        }
+        long generation = ++session.generation;
+        session.check = wheel.schedule(() -> check(partnerId, session, generation), delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void check(long partnerId, Session session, long generation) {
+        synchronized (session) {
+            if (sessions.get(partnerId) != session || session.generation != generation) {
+                return;
+            }
+            session.check = null;
+            if (session.online) {
+                long lastSeen = session.lastSeenNanos;
+                long idle = System.nanoTime() - lastSeen;
+                if (idle < ttlNanos) {
+                    arm(partnerId, session, ttlNanos - idle);
+                    return;
+                }
+                session.online = false;
+                if (session.lastSeenNanos != lastSeen) {
+                    // A heartbeat raced the expiry and saw the session still online
+                    session.online = true;
+                    arm(partnerId, session, ttlNanos);
+                    return;
+                }
+                session.expired = true;
+            }
+        }
+
+        boolean offline;
+        try {
+            offline = handler.onExpired(partnerId);
+        } catch (RuntimeException e) {
+            System.err.println("Error: presence expiry failed for partner " + partnerId + ": " + e.getMessage());
+            offline = false;
+        }
+        if (!offline) {
+            synchronized (session) {
+                if (!session.online && session.check == null && sessions.get(partnerId) == session) {
+                    arm(partnerId, session, ttlNanos);
+                }
+            }
+        }
+    }
+}
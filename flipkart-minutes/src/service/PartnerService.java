@@ -1,11 +1,17 @@
 package src.service;
 import src.models.DeliveryPartner;
+import src.models.GeoLocation;
 import src.enums.PartnerStatus;
 import src.models.Order;
 import src.enums.OrderStatus;
+import src.events.LifecycleEventBus;
+import src.metrics.Counter;
+import src.metrics.LatencyHistogram;
+import src.metrics.MetricsRegistry;
 import src.repository.PartnerRepository;
 import src.repository.OrderRepository;
-import src.util.FileUtil;
+import src.util.BlockIdAllocator;
+import src.util.EntityLockManager;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,23 +20,66 @@ public class PartnerService {
     private final PartnerRepository partnerRepository;
     private final OrderRepository orderRepository;
     private final NotificationService notificationService;
-    private long partnerIdCounter;
+    private final MatchingEngine matchingEngine;
+    private final EntityLockManager lockManager;
+    private final OrderTimeoutScheduler timeouts;
+    private final LifecycleEventBus events;
+    private final PartnerPresenceTracker presence;
+
+    private final LatencyHistogram pickUpOrderTimer;
+    private final LatencyHistogram completeOrderTimer;
+    private final LatencyHistogram timeToPickup;
+    private final LatencyHistogram timeToDeliver;
+    private final LatencyHistogram endToEnd;
+    private final Counter ordersPickedUp;
+    private final Counter ordersDelivered;
+    private final Counter partnersExpired;
+    private final BlockIdAllocator partnerIds;
 
     public PartnerService(PartnerRepository partnerRepository,
                           OrderRepository orderRepository,
-                          NotificationService notificationService) {
+                          NotificationService notificationService,
+                          MatchingEngine matchingEngine,
+                          EntityLockManager lockManager,
+                          OrderTimeoutScheduler timeouts,
+                          LifecycleEventBus events,
+                          MetricsRegistry metrics) {
+        this(partnerRepository, orderRepository, notificationService, matchingEngine, lockManager,
+                timeouts, events, metrics, null);
+    }
+
+    // presence may be null: heartbeats are then accepted and ignored, and nobody expires
+    public PartnerService(PartnerRepository partnerRepository,
+                          OrderRepository orderRepository,
+                          NotificationService notificationService,
+                          MatchingEngine matchingEngine,
+                          EntityLockManager lockManager,
+                          OrderTimeoutScheduler timeouts,
+                          LifecycleEventBus events,
+                          MetricsRegistry metrics,
+                          PartnerPresenceTracker presence) {
         this.partnerRepository = partnerRepository;
         this.orderRepository = orderRepository;
         this.notificationService = notificationService;
-        this.partnerIdCounter = loadLastPartnerId();
-    }
-
-    private long loadLastPartnerId() {
-        return FileUtil.loadCounter("partner_counter.txt", 1L);
-    }
-
-    private void savePartnerId(long id) {
-        FileUtil.saveCounter("partner_counter.txt", id);
+        this.matchingEngine = matchingEngine;
+        this.lockManager = lockManager;
+        this.timeouts = timeouts;
+        this.events = events;
+        this.presence = presence;
+
+        this.pickUpOrderTimer = metrics.histogram("pickUpOrder", "ns");
+        this.completeOrderTimer = metrics.histogram("completeOrder", "ns");
+        this.timeToPickup = metrics.histogram("order.timeToPickup", "ms");
+        this.timeToDeliver = metrics.histogram("order.timeToDeliver", "ms");
+        this.endToEnd = metrics.histogram("order.createdToDelivered", "ms");
+        this.ordersPickedUp = metrics.counter("orders.pickedUp");
+        this.ordersDelivered = metrics.counter("orders.delivered");
+        this.partnersExpired = metrics.counter("partners.expired");
+        this.partnerIds = new BlockIdAllocator("partner_counter.txt", 1L, 1_000);
+
+        if (presence != null) {
+            presence.setHandler(this::expirePartner);
+        }
     }
 
     // Onboard new partner
@@ -38,16 +87,17 @@ public class PartnerService {
         return onboardPartner(name, null, null);
     }
 
-    public synchronized DeliveryPartner onboardPartner(String name, String phone,
-                                                       String vehicleNumber) {
-        long partnerId = ++partnerIdCounter;
-        savePartnerId(partnerId);
+    public DeliveryPartner onboardPartner(String name, String phone,
+                                          String vehicleNumber) {
+        long partnerId = partnerIds.nextId();
 
         DeliveryPartner partner = new DeliveryPartner(partnerId, name);
         partner.setPhone(phone);
         partner.setVehicleNumber(vehicleNumber);
 
         partnerRepository.save(partner);
+        events.partnerStatusChanged(partnerId, partner.getStatus());
+        matchingEngine.partnerAvailable(partnerId);
 
         System.out.println("✓ Partner onboarded: " + partner);
         notificationService.logSystemEvent("New partner onboarded: " + name);
@@ -56,40 +106,48 @@ public class PartnerService {
     }
 
     // Pick up order
-    public synchronized boolean pickUpOrder(long partnerId, long orderId) {
-        Optional<DeliveryPartner> optPartner =
-                partnerRepository.findById(String.valueOf(partnerId));
-        Optional<Order> optOrder =
-                orderRepository.findById(String.valueOf(orderId));
+    // Timings include waiting for the order/partner locks
+    public boolean pickUpOrder(long partnerId, long orderId) {
+        long start = System.nanoTime();
+        try {
+            return lockManager.withOrderAndPartner(orderId, partnerId,
+                    () -> pickUpOrderLocked(partnerId, orderId));
+        } finally {
+            pickUpOrderTimer.record(System.nanoTime() - start);
+        }
+    }
 
-        if (optPartner.isEmpty()) {
+    // The *Locked methods run under the stripe locks: they report through the notification queue,
+    // which only enqueues, and never write to the console themselves
+    private boolean pickUpOrderLocked(long partnerId, long orderId) {
+        DeliveryPartner partner = partnerRepository.getById(partnerId);
+        Order order = orderRepository.getById(orderId);
+
+        if (partner == null) {
             notificationService.logError("Partner not found: " + partnerId);
             return false;
         }
 
-        if (optOrder.isEmpty()) {
+        if (order == null) {
             notificationService.logError("Order not found: " + orderId);
             return false;
         }
 
-        DeliveryPartner partner = optPartner.get();
-        Order order = optOrder.get();
-
         // Validation checks
         if (order.getAssignedPartnerId() == null ||
                 order.getAssignedPartnerId() != partnerId) {
-            System.out.println("✗ Order not assigned to this partner");
+            notificationService.logError("Order " + orderId + " not assigned to partner " + partnerId);
             return false;
         }
 
         if (order.getStatus() != OrderStatus.ASSIGNED) {
-            System.out.println("✗ Order cannot be picked up (status: " +
+            notificationService.logError("Order " + orderId + " cannot be picked up (status: " +
                     order.getStatus() + ")");
             return false;
         }
 
         if (partner.getStatus() != PartnerStatus.BUSY) {
-            System.out.println("✗ Partner status invalid");
+            notificationService.logError("Partner " + partnerId + " status invalid for pickup: " + partner.getStatus());
             return false;
         }
 
@@ -97,35 +155,46 @@ public class PartnerService {
         order.setStatus(OrderStatus.PICKED_UP);
         order.setPickedUpAt(java.time.LocalDateTime.now());
         orderRepository.save(order);
+        timeouts.orderPickedUp(orderId);
+        ordersPickedUp.increment();
+        if (order.getCreatedAt() != null) {
+            timeToPickup.record(java.time.Duration.between(order.getCreatedAt(), order.getPickedUpAt()).toMillis());
+        }
+        events.orderPickedUp(orderId, order.getCustomerId(), partnerId);
 
-        System.out.println("✓ Order picked up: " + orderId + " by Partner: " + partnerId);
+        notificationService.logSystemEvent("Order picked up: " + orderId + " by Partner: " + partnerId);
         notificationService.notifyOrderPickedUp(order.getCustomerId(), orderId, partnerId);
 
         return true;
     }
 
     // Complete delivery
-    public synchronized boolean completeOrder(long partnerId, long orderId) {
+    public boolean completeOrder(long partnerId, long orderId) {
         return completeOrder(partnerId, orderId, null);
     }
 
-    public synchronized boolean completeOrder(long partnerId, long orderId, Integer rating) {
-        Optional<DeliveryPartner> optPartner =
-                partnerRepository.findById(String.valueOf(partnerId));
-        Optional<Order> optOrder =
-                orderRepository.findById(String.valueOf(orderId));
+    public boolean completeOrder(long partnerId, long orderId, Integer rating) {
+        long start = System.nanoTime();
+        try {
+            return lockManager.withOrderAndPartner(orderId, partnerId,
+                    () -> completeOrderLocked(partnerId, orderId, rating));
+        } finally {
+            completeOrderTimer.record(System.nanoTime() - start);
+        }
+    }
+
+    private boolean completeOrderLocked(long partnerId, long orderId, Integer rating) {
+        DeliveryPartner partner = partnerRepository.getById(partnerId);
+        Order order = orderRepository.getById(orderId);
 
-        if (optPartner.isEmpty() || optOrder.isEmpty()) {
+        if (partner == null || order == null) {
             return false;
         }
 
-        DeliveryPartner partner = optPartner.get();
-        Order order = optOrder.get();
-
         // Validation
         if (order.getStatus() != OrderStatus.PICKED_UP ||
                 order.getAssignedPartnerId() != partnerId) {
-            System.out.println("✗ Cannot complete order (not picked up by this partner)");
+            notificationService.logError("Cannot complete order " + orderId + " (not picked up by partner " + partnerId + ")");
             return false;
         }
 
@@ -133,34 +202,72 @@ public class PartnerService {
         order.setStatus(OrderStatus.DELIVERED);
         order.setDeliveredAt(java.time.LocalDateTime.now());
         orderRepository.save(order);
+        timeouts.orderClosed(orderId);
 
         // Update partner
         partner.setStatus(PartnerStatus.AVAILABLE);
         partner.setCurrentOrderId(null);
         partner.incrementDeliveries();
+        ordersDelivered.increment();
+        if (order.getPickedUpAt() != null) {
+            java.time.Duration deliveryTime = java.time.Duration.between(order.getPickedUpAt(), order.getDeliveredAt());
+            partner.getStats().recordDeliveryTime(deliveryTime.getSeconds());
+            timeToDeliver.record(deliveryTime.toMillis());
+        }
+        if (order.getCreatedAt() != null) {
+            endToEnd.record(java.time.Duration.between(order.getCreatedAt(), order.getDeliveredAt()).toMillis());
+        }
 
         if (rating != null && rating >= 1 && rating <= 5) {
             partner.addRating(rating);
-            System.out.println("✓ Rating added: " + rating + " stars");
+            notificationService.logSystemEvent("Rating added for partner " + partnerId + ": " + rating + " stars");
         }
 
         partnerRepository.save(partner);
+        events.orderDelivered(orderId, order.getCustomerId(), partnerId);
+        events.partnerStatusChanged(partnerId, PartnerStatus.AVAILABLE);
+        matchingEngine.partnerAvailable(partnerId, partner.getLocation());
 
-        System.out.println("✓ Order delivered: " + orderId + " by Partner: " + partnerId);
+        notificationService.logSystemEvent("Order delivered: " + orderId + " by Partner: " + partnerId);
         notificationService.notifyOrderDelivered(order.getCustomerId(), orderId);
 
         return true;
     }
 
+    // Rating submitted after the fact (e.g. from the customer app). The stats update is lock-free;
+    // only the save takes the partner lock, so the logged record can't overtake a newer one
+    // written by a concurrent assignment or delivery.
+    public boolean ratePartner(long partnerId, int rating) {
+        if (rating < 1 || rating > 5) {
+            return false;
+        }
+        Optional<DeliveryPartner> optPartner =
+                partnerRepository.findById(partnerId);
+
+        if (optPartner.isEmpty()) {
+            return false;
+        }
+
+        DeliveryPartner partner = optPartner.get();
+        partner.addRating(rating);
+        // Re-save so the leaderboards and the durable log pick up the new average
+        lockManager.withPartner(partnerId, () -> partnerRepository.save(partner));
+        return true;
+    }
+
     // Get partner status
     public DeliveryPartner getPartnerStatus(long partnerId) {
-        return partnerRepository.findById(String.valueOf(partnerId)).orElse(null);
+        return partnerRepository.findById(partnerId).orElse(null);
     }
 
     // Change partner status (online/offline)
-    public synchronized boolean updatePartnerStatus(long partnerId, PartnerStatus status) {
+    public boolean updatePartnerStatus(long partnerId, PartnerStatus status) {
+        return lockManager.withPartner(partnerId, () -> updatePartnerStatusLocked(partnerId, status));
+    }
+
+    private boolean updatePartnerStatusLocked(long partnerId, PartnerStatus status) {
         Optional<DeliveryPartner> optPartner =
-                partnerRepository.findById(String.valueOf(partnerId));
+                partnerRepository.findById(partnerId);
 
         if (optPartner.isEmpty()) {
             return false;
@@ -170,17 +277,143 @@ public class PartnerService {
 
         // Cannot go offline if busy
         if (status == PartnerStatus.OFFLINE && partner.getStatus() == PartnerStatus.BUSY) {
-            System.out.println("✗ Cannot go offline while delivering order");
+            notificationService.logError("Partner " + partnerId + " cannot go offline while delivering order");
+            return false;
+        }
+
+        // Only order completion/cancellation may free a partner holding an order
+        if (status == PartnerStatus.AVAILABLE && partner.getCurrentOrderId() != null) {
+            notificationService.logError("Partner " + partnerId + " cannot become available while delivering order");
             return false;
         }
 
         partner.setStatus(status);
         partnerRepository.save(partner);
+        events.partnerStatusChanged(partnerId, status);
+        if (status == PartnerStatus.OFFLINE && presence != null) {
+            presence.remove(partnerId); // logged off - a later heartbeat doesn't bring them back
+        }
+
+        if (status == PartnerStatus.AVAILABLE) {
+            matchingEngine.partnerAvailable(partnerId, partner.getLocation());
+        } else {
+            matchingEngine.partnerUnavailable(partnerId);
+        }
+
+        notificationService.logSystemEvent("Partner status updated: " + partnerId + " -> " + status);
+        return true;
+    }
+
+    // Location ping from the partner app. Not persisted per ping - it is saved with the next transition.
+    public boolean updatePartnerLocation(long partnerId, GeoLocation location) {
+        Optional<DeliveryPartner> optPartner =
+                partnerRepository.findById(partnerId);
+
+        if (optPartner.isEmpty()) {
+            return false;
+        }
+
+        optPartner.get().setLocation(location);
+        matchingEngine.partnerMoved(partnerId, location);
+        if (presence != null && presence.heartbeat(partnerId)) {
+            restorePartner(partnerId);
+        }
+        return true;
+    }
+
+    // App heartbeat: O(1), no lock, nothing saved. A partner who went silent for the presence ttl
+    // is taken offline; their next heartbeat makes them available again.
+    public boolean heartbeat(long partnerId) {
+        if (!partnerRepository.exists(partnerId)) {
+            return false;
+        }
+        if (presence != null && presence.heartbeat(partnerId)) {
+            restorePartner(partnerId);
+        }
+        return true;
+    }
+
+    public boolean isOnline(long partnerId) {
+        return presence != null && presence.isOnline(partnerId);
+    }
+
+    // Presence expiry, on the timer thread. An order assigned but not yet picked up goes back in
+    // line for another partner; a partner carrying an order stays BUSY (false - asked again later).
+    private boolean expirePartner(long partnerId) {
+        DeliveryPartner snapshot = partnerRepository.getById(partnerId);
+        if (snapshot == null) {
+            return true;
+        }
+        Long orderId = snapshot.getCurrentOrderId();
+        if (orderId == null) {
+            return lockManager.withPartner(partnerId, () -> expirePartnerLocked(partnerId, null));
+        }
+        return lockManager.withOrderAndPartner(orderId, partnerId, () -> expirePartnerLocked(partnerId, orderId));
+    }
+
+    // Caller holds the partner stripe, and the order stripe if orderId is set
+    private boolean expirePartnerLocked(long partnerId, Long orderId) {
+        DeliveryPartner partner = partnerRepository.getById(partnerId);
+        if (partner == null || partner.getStatus() == PartnerStatus.OFFLINE) {
+            return true;
+        }
+        // A heartbeat resumed the session after the tracker gave up on it. Its restorePartner either
+        // already ran (and found the partner still AVAILABLE) or waits on this lock; either way the
+        // partner is back, so leave them be.
+        if (presence != null && presence.isOnline(partnerId)) {
+            return true;
+        }
+        Long currentOrderId = partner.getCurrentOrderId();
+        if (currentOrderId != null && !currentOrderId.equals(orderId)) {
+            return false; // took another order since the snapshot; try again next round
+        }
 
-        System.out.println("✓ Partner status updated: " + partnerId + " -> " + status);
+        Order order = null;
+        if (currentOrderId != null) {
+            order = orderRepository.getById(currentOrderId);
+            if (order != null && order.getStatus() != OrderStatus.ASSIGNED) {
+                return false; // picked up - only the partner can finish it
+            }
+        }
+
+        partner.setStatus(PartnerStatus.OFFLINE);
+        partner.setCurrentOrderId(null);
+        partnerRepository.save(partner);
+        matchingEngine.partnerUnavailable(partnerId);
+        events.partnerStatusChanged(partnerId, PartnerStatus.OFFLINE);
+        partnersExpired.increment();
+
+        if (order != null) {
+            order.setStatus(OrderStatus.PENDING);
+            order.setAssignedPartnerId(null);
+            orderRepository.save(order);
+            timeouts.orderUnassigned(order.getOrderId());
+            events.orderUnassigned(order.getOrderId(), order.getCustomerId(), partnerId);
+            matchingEngine.resubmitOrder(order.getOrderId(), order.getPickupLocation(), order.getAssignDeadlineMillis());
+            notificationService.notifyOrderUnassigned(order.getCustomerId(), order.getOrderId());
+        }
+
+        notificationService.logSystemEvent("Partner " + partnerId + " went offline (no heartbeat)"
+                + (order != null ? ", order " + order.getOrderId() + " back in line" : ""));
         return true;
     }
 
+    // Back after an expiry: available again unless they went off duty or hold an order meanwhile
+    private void restorePartner(long partnerId) {
+        lockManager.withPartner(partnerId, () -> {
+            DeliveryPartner partner = partnerRepository.getById(partnerId);
+            if (partner == null || partner.getStatus() != PartnerStatus.OFFLINE || partner.getCurrentOrderId() != null) {
+                return null;
+            }
+            partner.setStatus(PartnerStatus.AVAILABLE);
+            partnerRepository.save(partner);
+            events.partnerStatusChanged(partnerId, PartnerStatus.AVAILABLE);
+            matchingEngine.partnerAvailable(partnerId, partner.getLocation());
+            notificationService.logSystemEvent("Partner back online: " + partnerId);
+            return null;
+        });
+    }
+
     // Get all partners
     public List<DeliveryPartner> getAllPartners() {
         return partnerRepository.findAll();
@@ -191,6 +424,10 @@ public class PartnerService {
         return partnerRepository.findAvailablePartners();
     }
 
+    public void shutdown() {
+        partnerIds.releaseUnused();
+    }
+
     // Dashboard: Top performers
     public void showTopPartners() {
         showTopPartners(10);
@@ -0,0 +1,156 @@
+package src.service;
+
+import src.util.LongLongHashMap;
+
+import java.util.Arrays;
+
+// Pending orders, earliest assignment deadline first (ties in arrival order). An indexed binary
+// heap over parallel primitive arrays plus an orderId -> slot map, so add, poll and remove-by-id
+// (cancellation) are all O(log n) with no per-order objects. Not thread-safe; the matching
+// engine guards it with its lock.
+public class PendingOrderQueue {
+
+    public static final long NONE = -1L;
+
+    private long[] orderIds;
+    private long[] deadlines;
+    private long[] sequences;
+    private final LongLongHashMap slotByOrderId;
+    private int size;
+    private long nextSequence;
+
+    public PendingOrderQueue() {
+        this(64);
+    }
+
+    public PendingOrderQueue(int initialCapacity) {
+        int capacity = Math.max(4, initialCapacity);
+        orderIds = new long[capacity];
+        deadlines = new long[capacity];
+        sequences = new long[capacity];
+        slotByOrderId = new LongLongHashMap(capacity);
+    }
+
+    // False if the order is already queued
+    public boolean add(long orderId, long deadlineMillis) {
+        if (slotByOrderId.containsKey(orderId)) {
+            return false;
+        }
+        if (size == orderIds.length) {
+            int capacity = size * 2;
+            orderIds = Arrays.copyOf(orderIds, capacity);
+            deadlines = Arrays.copyOf(deadlines, capacity);
+            sequences = Arrays.copyOf(sequences, capacity);
+        }
+        int slot = size++;
+        orderIds[slot] = orderId;
+        deadlines[slot] = deadlineMillis;
+        sequences[slot] = nextSequence++;
+        slotByOrderId.put(orderId, slot);
+        siftUp(slot);
+        return true;
+    }
+
+    // Most urgent order, or NONE
+    public long peek() {
+        return size == 0 ? NONE : orderIds[0];
+    }
+
+    public long peekDeadline() {
+        return size == 0 ? Long.MAX_VALUE : deadlines[0];
+    }
+
+    public long poll() {
+        if (size == 0) {
+            return NONE;
+        }
+        long orderId = orderIds[0];
+        removeAt(0);
+        return orderId;
+    }
+
+    public boolean remove(long orderId) {
+        long slot = slotByOrderId.get(orderId, NONE);
+        if (slot == NONE) {
+            return false;
+        }
+        removeAt((int) slot);
+        return true;
+    }
+
+    public boolean contains(long orderId) {
+        return slotByOrderId.containsKey(orderId);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void removeAt(int slot) {
+        slotByOrderId.remove(orderIds[slot]);
+        int last = --size;
+        if (slot != last) {
+            move(last, slot);
+            if (!siftUp(slot)) {
+                siftDown(slot);
+            }
+        }
+    }
+
+    // Returns true if the entry moved
+    private boolean siftUp(int slot) {
+        int start = slot;
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (!before(slot, parent)) {
+                break;
+            }
+            swap(slot, parent);
+            slot = parent;
+        }
+        return slot != start;
+    }
+
+    private void siftDown(int slot) {
+        while (true) {
+            int child = 2 * slot + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && before(child + 1, child)) {
+                child++;
+            }
+            if (!before(child, slot)) {
+                return;
+            }
+            swap(slot, child);
+            slot = child;
+        }
+    }
+
+    private boolean before(int a, int b) {
+        return deadlines[a] != deadlines[b] ? deadlines[a] < deadlines[b] : sequences[a] < sequences[b];
+    }
+
+    private void swap(int a, int b) {
+        long id = orderIds[a];
+        long deadline = deadlines[a];
+        long sequence = sequences[a];
+        move(b, a);
+        orderIds[b] = id;
+        deadlines[b] = deadline;
+        sequences[b] = sequence;
+        slotByOrderId.put(id, b);
+    }
+
+    private void move(int from, int to) {
+        orderIds[to] = orderIds[from];
+        deadlines[to] = deadlines[from];
+        sequences[to] = sequences[from];
+        slotByOrderId.put(orderIds[to], to);
+    }
+}
@@ -0,0 +1,293 @@
+package src.service;
+
+import src.models.GeoLocation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// N independent PartnerMatchingEngines, one per assignment worker, so matching no longer funnels
+// through one lock and one thread. Orders and partners are routed by zone (a coarse lat/lon cell)
+// when they have a position, otherwise by id hash; a shard only ever matches its own pool.
+//
+// Work stealing: a worker that finds nothing to match within its wait rebalances -
+// with spare partners it pulls surplus parked orders (more orders than partners) from other
+// shards; with parked orders and no partners it pulls a free partner from a shard with no orders.
+// Each fruitless rebalance doubles the wait, from STEAL_INTERVAL up to MAX_IDLE_WAIT, so idle
+// workers sleep rather than poll. Instead, an idle worker records what it could use (orders,
+// partners) and the shard that gains such a surplus nudges it awake. The record is written
+// before the rebalance scan, so an arrival the scan missed always sees it; MAX_IDLE_WAIT only
+// bounds the cost of a cue nobody sends (e.g. a surplus left behind by a cancellation).
+//
+// A partner is pooled in at most one shard: partnerShard records the owner, and every pool change
+// for a partner (add, steal, unavailable) runs inside partnerShard.compute for that id, so a steal
+// can't interleave with an unavailable/available pair. A match leaves the pool under the shard
+// lock and then drops the owner entry. The assignment itself is still validated under the
+// order/partner locks, so even a stale pool entry could never double-assign a partner.
+public class ShardedMatchingEngine implements MatchingEngine {
+
+    public static final double DEFAULT_ZONE_DEGREES = 0.05; // ~5.5 km cells
+    private static final long STEAL_INTERVAL_MILLIS = 5;
+    private static final long MAX_IDLE_WAIT_MILLIS = 1_000;
+
+    // Per shard, while its worker waits without a match: IDLE plus what a steal could bring it
+    private static final int IDLE = 1;
+    private static final int WANTS_ORDERS = 2;
+    private static final int WANTS_PARTNERS = 4;
+
+    private final PartnerMatchingEngine[] shards;
+    private final double zoneDegrees;
+    private final ConcurrentHashMap<Long, Integer> partnerShard = new ConcurrentHashMap<>();
+    private final AtomicIntegerArray idle;
+
+    public ShardedMatchingEngine(int shardCount) {
+        this(shardCount, DEFAULT_ZONE_DEGREES);
+    }
+
+    public ShardedMatchingEngine(int shardCount, double zoneDegrees) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shardCount must be positive: " + shardCount);
+        }
+        this.shards = new PartnerMatchingEngine[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new PartnerMatchingEngine();
+        }
+        this.idle = new AtomicIntegerArray(shardCount);
+        this.zoneDegrees = zoneDegrees;
+    }
+
+    @Override
+    public void submitOrder(long orderId, GeoLocation pickupLocation, long assignDeadlineMillis) {
+        int shard = shardFor(orderId, pickupLocation);
+        shards[shard].submitOrder(orderId, pickupLocation, assignDeadlineMillis);
+        ordersArrived(shard);
+    }
+
+    // Split the batch by shard so each shard is locked once
+    @Override
+    public void submitOrders(long[] orderIds, GeoLocation[] pickupLocations, long[] assignDeadlinesMillis) {
+        int[] shardOf = new int[orderIds.length];
+        int[] perShard = new int[shards.length];
+        for (int i = 0; i < orderIds.length; i++) {
+            shardOf[i] = shardFor(orderIds[i], pickupLocations[i]);
+            perShard[shardOf[i]]++;
+        }
+        for (int shard = 0; shard < shards.length; shard++) {
+            int n = perShard[shard];
+            if (n == 0) {
+                continue;
+            }
+            long[] ids = new long[n];
+            GeoLocation[] pickups = new GeoLocation[n];
+            long[] deadlines = new long[n];
+            for (int i = 0, j = 0; j < n; i++) {
+                if (shardOf[i] == shard) {
+                    ids[j] = orderIds[i];
+                    pickups[j] = pickupLocations[i];
+                    deadlines[j] = assignDeadlinesMillis[i];
+                    j++;
+                }
+            }
+            shards[shard].submitOrders(ids, pickups, deadlines);
+            ordersArrived(shard);
+        }
+    }
+
+    // Orders can have been stolen away from their home shard, so ask every shard; cancels are rare
+    @Override
+    public boolean withdrawOrder(long orderId) {
+        for (PartnerMatchingEngine shard : shards) {
+            if (shard.withdrawOrder(orderId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void partnerAvailable(long partnerId, GeoLocation location) {
+        int shard = shardFor(partnerId, location);
+        partnerShard.compute(partnerId, (id, owner) -> {
+            if (owner != null) {
+                // Already pooled (or being handed to a worker) - just refresh the position
+                if (location != null) {
+                    shards[owner].partnerMoved(partnerId, location);
+                }
+                return owner;
+            }
+            shards[shard].partnerAvailable(partnerId, location);
+            return shard;
+        });
+        partnerArrived(shard);
+    }
+
+    @Override
+    public boolean partnerUnavailable(long partnerId) {
+        boolean[] removed = new boolean[1];
+        partnerShard.computeIfPresent(partnerId, (id, owner) -> {
+            removed[0] = shards[owner].partnerUnavailable(partnerId);
+            return null;
+        });
+        return removed[0];
+    }
+
+    // A pooled partner stays in its shard when it crosses a zone edge; it is re-routed the next
+    // time it becomes available
+    @Override
+    public void partnerMoved(long partnerId, GeoLocation location) {
+        Integer owner = partnerShard.get(partnerId);
+        if (owner != null) {
+            shards[owner].partnerMoved(partnerId, location);
+        }
+    }
+
+    @Override
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    @Override
+    public Match awaitMatch(int shard) throws InterruptedException {
+        PartnerMatchingEngine own = shards[shard];
+        long wait = STEAL_INTERVAL_MILLIS;
+        try {
+            while (true) {
+                Match match = own.pollMatch(wait, TimeUnit.MILLISECONDS);
+                if (match != null) {
+                    partnerShard.remove(match.getPartnerId(), shard);
+                    return match;
+                }
+                if (shards.length > 1 && rebalance(shard)) {
+                    wait = STEAL_INTERVAL_MILLIS;
+                } else {
+                    wait = Math.min(wait * 2, MAX_IDLE_WAIT_MILLIS);
+                }
+            }
+        } finally {
+            idle.set(shard, 0);
+        }
+    }
+
+    @Override
+    public int getParkedOrderCount() {
+        int total = 0;
+        for (PartnerMatchingEngine shard : shards) {
+            total += shard.getParkedOrderCount();
+        }
+        return total;
+    }
+
+    @Override
+    public int getAvailablePartnerCount() {
+        int total = 0;
+        for (PartnerMatchingEngine shard : shards) {
+            total += shard.getAvailablePartnerCount();
+        }
+        return total;
+    }
+
+    // The shard's own arrivals may make it matchable or give it something to steal; siblings
+    // that could use its surplus orders are woken to take them
+    private void ordersArrived(int shard) {
+        if (idle.get(shard) != 0) {
+            shards[shard].nudge();
+        }
+        if (anySiblingWants(shard, WANTS_ORDERS) && shards[shard].hasSurplusOrders()) {
+            nudgeSiblings(shard, WANTS_ORDERS);
+        }
+    }
+
+    private void partnerArrived(int shard) {
+        if (idle.get(shard) != 0) {
+            shards[shard].nudge();
+        }
+        if (anySiblingWants(shard, WANTS_PARTNERS) && shards[shard].hasSurplusPartners()) {
+            nudgeSiblings(shard, WANTS_PARTNERS);
+        }
+    }
+
+    private boolean anySiblingWants(int shard, int want) {
+        for (int i = 0; i < shards.length; i++) {
+            if (i != shard && (idle.get(i) & want) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void nudgeSiblings(int shard, int want) {
+        for (int i = 0; i < shards.length; i++) {
+            if (i != shard && (idle.get(i) & want) != 0) {
+                shards[i].nudge();
+            }
+        }
+    }
+
+    // Victims are visited round-robin starting after the thief, so thieves spread their probes.
+    // True if anything moved.
+    private boolean rebalance(int thief) {
+        PartnerMatchingEngine own = shards[thief];
+        int freePartners = own.getAvailablePartnerCount();
+        int parkedOrders = own.getParkedOrderCount();
+        boolean wantsOrders = freePartners > parkedOrders;
+        boolean wantsPartners = parkedOrders > 0 && freePartners == 0;
+        idle.set(thief, IDLE | (wantsOrders ? WANTS_ORDERS : 0) | (wantsPartners ? WANTS_PARTNERS : 0));
+
+        if (wantsOrders) {
+            List<PartnerMatchingEngine.Handoff> stolen = new ArrayList<>();
+            int wanted = freePartners - parkedOrders;
+            for (int i = 1; i < shards.length && stolen.size() < wanted; i++) {
+                shards[(thief + i) % shards.length].stealOrders(wanted - stolen.size(), stolen);
+            }
+            for (PartnerMatchingEngine.Handoff order : stolen) {
+                own.submitOrder(order.id, order.location, order.deadlineMillis);
+            }
+            return !stolen.isEmpty();
+        } else if (wantsPartners) {
+            int stolen = 0;
+            for (int i = 1; i < shards.length && stolen < parkedOrders; i++) {
+                int victimIndex = (thief + i) % shards.length;
+                long partnerId = shards[victimIndex].stealablePartner();
+                if (partnerId != PendingOrderQueue.NONE && movePartner(partnerId, victimIndex, thief)) {
+                    stolen++;
+                }
+            }
+            return stolen > 0;
+        }
+        return false;
+    }
+
+    // Under the owner entry: the partner leaves the victim's pool and joins the thief's as one step.
+    // Nothing moves if it went unavailable, was matched or now belongs to another shard.
+    private boolean movePartner(long partnerId, int victim, int thief) {
+        boolean[] moved = new boolean[1];
+        partnerShard.computeIfPresent(partnerId, (id, owner) -> {
+            if (owner != victim) {
+                return owner;
+            }
+            PartnerMatchingEngine.Handoff partner = shards[victim].stealPartner(partnerId);
+            if (partner == null) {
+                return owner;
+            }
+            shards[thief].partnerAvailable(partnerId, partner.location);
+            moved[0] = true;
+            return thief;
+        });
+        return moved[0];
+    }
+
+    private int shardFor(long id, GeoLocation location) {
+        long key;
+        if (location != null) {
+            long row = (long) Math.floor(location.getLatitude() / zoneDegrees);
+            long col = (long) Math.floor(location.getLongitude() / zoneDegrees);
+            key = row * 0x9E3779B97F4A7C15L + col;
+        } else {
+            key = id;
+        }
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) Math.floorMod(h ^ (h >>> 32), (long) shards.length);
+    }
+}
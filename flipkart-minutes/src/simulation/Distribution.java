@@ -0,0 +1,38 @@
+package src.simulation;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+// A duration distribution for simulated activity (pickup time, ride time, time before a cancel)
+public interface Distribution {
+
+    long sampleMillis(SplittableRandom random);
+
+    static Distribution fixed(Duration value) {
+        long millis = value.toMillis();
+        return random -> millis;
+    }
+
+    static Distribution uniform(Duration min, Duration max) {
+        long lo = min.toMillis();
+        long span = Math.max(1, max.toMillis() - lo + 1);
+        return random -> lo + random.nextLong(span);
+    }
+
+    static Distribution exponential(Duration mean) {
+        double meanMillis = mean.toMillis();
+        return random -> (long) (-meanMillis * Math.log(1.0 - random.nextDouble()));
+    }
+
+    // Right-skewed, like real pickup and ride times: most trips near the median, a long slow tail
+    static Distribution logNormal(Duration median, double sigma) {
+        double mu = Math.log(Math.max(1, median.toMillis()));
+        return random -> {
+            // Box-Muller
+            double u1 = 1.0 - random.nextDouble();
+            double u2 = random.nextDouble();
+            double z = Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+            return (long) Math.exp(mu + sigma * z);
+        };
+    }
+}
@@ -0,0 +1,130 @@
+package src.simulation;
+
+import src.enums.SimulationMode;
+
+import java.time.Duration;
+import java.util.function.LongToDoubleFunction;
+
+// Load shape for one simulation run. Starts from defaults() - a modest steady evening - and is
+// tuned with the fluent setters, e.g. defaults().arrivalRate(400).partners(1500).
+public class SimulationConfig {
+
+    private SimulationMode mode = SimulationMode.VIRTUAL_TIME;
+    private Duration duration = Duration.ofHours(1);
+    private int customers = 10_000;
+    private int partners = 500;
+    // Orders per second as a function of elapsed simulated millis
+    private LongToDoubleFunction arrivalRate = elapsed -> 50.0;
+    private Distribution pickupTime = Distribution.logNormal(Duration.ofMinutes(6), 0.4);
+    private Distribution deliveryTime = Distribution.logNormal(Duration.ofMinutes(12), 0.5);
+    private double cancelProbability = 0.03;
+    private Distribution cancelAfter = Distribution.uniform(Duration.ofSeconds(10), Duration.ofMinutes(5));
+    private Duration tick = Duration.ofSeconds(1);
+    private long seed = 42;
+
+    public static SimulationConfig defaults() {
+        return new SimulationConfig();
+    }
+
+    public SimulationConfig mode(SimulationMode mode) {
+        this.mode = mode;
+        return this;
+    }
+
+    public SimulationConfig duration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    public SimulationConfig customers(int customers) {
+        this.customers = customers;
+        return this;
+    }
+
+    public SimulationConfig partners(int partners) {
+        this.partners = partners;
+        return this;
+    }
+
+    public SimulationConfig arrivalRate(double ordersPerSecond) {
+        return arrivalRate(elapsed -> ordersPerSecond);
+    }
+
+    // Time-varying load, e.g. a festival sale spike at the top of the hour
+    public SimulationConfig arrivalRate(LongToDoubleFunction ordersPerSecondAtElapsedMillis) {
+        this.arrivalRate = ordersPerSecondAtElapsedMillis;
+        return this;
+    }
+
+    public SimulationConfig pickupTime(Distribution pickupTime) {
+        this.pickupTime = pickupTime;
+        return this;
+    }
+
+    public SimulationConfig deliveryTime(Distribution deliveryTime) {
+        this.deliveryTime = deliveryTime;
+        return this;
+    }
+
+    // Share of orders the customer tries to cancel, cancelAfter their creation
+    public SimulationConfig cancellations(double probability, Distribution cancelAfter) {
+        this.cancelProbability = probability;
+        this.cancelAfter = cancelAfter;
+        return this;
+    }
+
+    // Virtual-time resolution and queue-depth sampling interval
+    public SimulationConfig tick(Duration tick) {
+        this.tick = tick;
+        return this;
+    }
+
+    public SimulationConfig seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public SimulationMode getMode() {
+        return mode;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public int getCustomers() {
+        return customers;
+    }
+
+    public int getPartners() {
+        return partners;
+    }
+
+    public double getArrivalRate(long elapsedMillis) {
+        return arrivalRate.applyAsDouble(elapsedMillis);
+    }
+
+    public Distribution getPickupTime() {
+        return pickupTime;
+    }
+
+    public Distribution getDeliveryTime() {
+        return deliveryTime;
+    }
+
+    public double getCancelProbability() {
+        return cancelProbability;
+    }
+
+    public Distribution getCancelAfter() {
+        return cancelAfter;
+    }
+
+    public Duration getTick() {
+        return tick;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+}
@@ -0,0 +1,111 @@
+package src.simulation;
+
+import src.enums.ExecutionMode;
+import src.enums.SimulationMode;
+import src.events.LifecycleEventBus;
+import src.metrics.MetricsRegistry;
+import src.notification.NotificationDispatcher;
+import src.notification.OverflowPolicy;
+import src.repository.CustomerRepository;
+import src.repository.OrderRepository;
+import src.repository.PartnerRepository;
+import src.service.CustomerService;
+import src.service.MatchingEngine;
+import src.service.NotificationService;
+import src.service.OrderService;
+import src.service.OrderTimeoutScheduler;
+import src.service.PartnerMatchingEngine;
+import src.service.PartnerService;
+import src.service.ShardedMatchingEngine;
+import src.util.EntityLockManager;
+import src.util.ExecutionThreads;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+
+// Runs one simulation against the in-memory stack (Main's wiring, no persistence) and prints the report.
+//   java -cp out src.simulation.SimulationMain mode=virtual_time minutes=60 rate=50 partners=500 \
+//        customers=10000 cancel=0.03 seed=42 [shards=4]
+// Honours -Dflipkart.threads like Main. Console notifications are swallowed during the run.
+public class SimulationMain {
+
+    public static void main(String[] args) throws Exception {
+        SimulationConfig config = SimulationConfig.defaults();
+        int shards = 1;
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                System.err.println("Error: expected key=value, got " + arg);
+                return;
+            }
+            String key = arg.substring(0, eq);
+            String value = arg.substring(eq + 1);
+            switch (key) {
+                case "mode":
+                    config.mode(SimulationMode.valueOf(value.toUpperCase()));
+                    break;
+                case "minutes":
+                    config.duration(Duration.ofMillis((long) (Double.parseDouble(value) * 60_000)));
+                    break;
+                case "rate":
+                    config.arrivalRate(Double.parseDouble(value));
+                    break;
+                case "partners":
+                    config.partners(Integer.parseInt(value));
+                    break;
+                case "customers":
+                    config.customers(Integer.parseInt(value));
+                    break;
+                case "cancel":
+                    config.cancellations(Double.parseDouble(value), config.getCancelAfter());
+                    break;
+                case "seed":
+                    config.seed(Long.parseLong(value));
+                    break;
+                case "shards":
+                    shards = Integer.parseInt(value);
+                    break;
+                default:
+                    System.err.println("Error: unknown option " + key);
+                    return;
+            }
+        }
+
+        ExecutionMode executionMode = ExecutionThreads.effective(ExecutionThreads.fromSystemProperty());
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        CustomerRepository customerRepo = new CustomerRepository();
+        PartnerRepository partnerRepo = new PartnerRepository();
+        OrderRepository orderRepo = new OrderRepository();
+        NotificationService notificationService = new NotificationService(null, null,
+                NotificationDispatcher.DEFAULT_CAPACITY, OverflowPolicy.COALESCE, executionMode);
+        MatchingEngine matchingEngine = shards > 1 ? new ShardedMatchingEngine(shards) : new PartnerMatchingEngine();
+        EntityLockManager lockManager = new EntityLockManager();
+        OrderTimeoutScheduler orderTimeouts = new OrderTimeoutScheduler();
+        LifecycleEventBus events = new LifecycleEventBus();
+        MetricsRegistry metrics = new MetricsRegistry();
+
+        CustomerService customerService = new CustomerService(customerRepo, notificationService);
+        PartnerService partnerService = new PartnerService(partnerRepo, orderRepo, notificationService,
+                matchingEngine, lockManager, orderTimeouts, events, metrics);
+        OrderService orderService = new OrderService(orderRepo, partnerRepo, notificationService,
+                matchingEngine, lockManager, orderTimeouts, events, metrics, executionMode);
+
+        SimulationReport report;
+        try {
+            report = new Simulator(customerService, orderService, partnerService, matchingEngine, events, config).run();
+        } finally {
+            orderService.shutdown();
+            partnerService.shutdown();
+            customerService.shutdown();
+            orderTimeouts.shutdown();
+            events.close();
+            notificationService.shutdown();
+            System.setOut(console);
+        }
+        System.out.print(report);
+        System.out.println("✓ Simulation complete");
+    }
+}
@@ -0,0 +1,131 @@
+package src.simulation;
+
+import src.enums.SimulationMode;
+import src.metrics.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+
+// Outcome of one run. Times are simulated milliseconds, except the wall time the run took.
+public class SimulationReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final SimulationMode mode;
+    private final long simulatedMillis;
+    private final long wallNanos;
+    private final long created;
+    private final long assigned;
+    private final long pickedUp;
+    private final long delivered;
+    private final long cancelled;
+    private final long cancelRejected;
+    private final long pendingAtEnd;
+    private final LatencyHistogram timeToAssign;
+    private final LatencyHistogram timeToPickup;
+    private final LatencyHistogram createdToDelivered;
+    private final LatencyHistogram queueDepth;
+
+    SimulationReport(SimulationMode mode, long simulatedMillis, long wallNanos,
+                     long created, long assigned, long pickedUp, long delivered,
+                     long cancelled, long cancelRejected, long pendingAtEnd,
+                     LatencyHistogram timeToAssign, LatencyHistogram timeToPickup,
+                     LatencyHistogram createdToDelivered, LatencyHistogram queueDepth) {
+        this.mode = mode;
+        this.simulatedMillis = simulatedMillis;
+        this.wallNanos = wallNanos;
+        this.created = created;
+        this.assigned = assigned;
+        this.pickedUp = pickedUp;
+        this.delivered = delivered;
+        this.cancelled = cancelled;
+        this.cancelRejected = cancelRejected;
+        this.pendingAtEnd = pendingAtEnd;
+        this.timeToAssign = timeToAssign;
+        this.timeToPickup = timeToPickup;
+        this.createdToDelivered = createdToDelivered;
+        this.queueDepth = queueDepth;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public long getAssigned() {
+        return assigned;
+    }
+
+    public long getPickedUp() {
+        return pickedUp;
+    }
+
+    public long getDelivered() {
+        return delivered;
+    }
+
+    public long getCancelled() {
+        return cancelled;
+    }
+
+    public long getPendingAtEnd() {
+        return pendingAtEnd;
+    }
+
+    // Per simulated second
+    public double getCreatedThroughput() {
+        return perSecond(created);
+    }
+
+    public double getDeliveredThroughput() {
+        return perSecond(delivered);
+    }
+
+    public LatencyHistogram getTimeToAssign() {
+        return timeToAssign;
+    }
+
+    public LatencyHistogram getTimeToPickup() {
+        return timeToPickup;
+    }
+
+    public LatencyHistogram getCreatedToDelivered() {
+        return createdToDelivered;
+    }
+
+    // Parked orders, sampled once per tick
+    public LatencyHistogram getQueueDepth() {
+        return queueDepth;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        long wallMillis = TimeUnit.NANOSECONDS.toMillis(wallNanos);
+        out.append(String.format("Simulation (%s): %.1f s simulated in %.1f s wall (%.0fx)%n", mode,
+                simulatedMillis / 1000.0, wallMillis / 1000.0, simulatedMillis / (double) Math.max(1, wallMillis)));
+        out.append(String.format("  orders    created=%d assigned=%d pickedUp=%d delivered=%d cancelled=%d"
+                + " cancelRejected=%d pendingAtEnd=%d%n",
+                created, assigned, pickedUp, delivered, cancelled, cancelRejected, pendingAtEnd));
+        out.append(String.format("  throughput created=%.2f/s delivered=%.2f/s%n",
+                getCreatedThroughput(), getDeliveredThroughput()));
+        appendHistogram(out, "queueDepth", queueDepth, "orders");
+        appendHistogram(out, "timeToAssign", timeToAssign, "ms");
+        appendHistogram(out, "timeToPickup", timeToPickup, "ms");
+        appendHistogram(out, "createdToDelivered", createdToDelivered, "ms");
+        return out.toString();
+    }
+
+    private double perSecond(long count) {
+        return simulatedMillis == 0 ? 0 : count * 1000.0 / simulatedMillis;
+    }
+
+    private static void appendHistogram(StringBuilder out, String name, LatencyHistogram histogram, String unit) {
+        long[] values = histogram.percentiles(PERCENTILES);
+        out.append(String.format("  %-18s count=%d mean=%.1f", name, histogram.getCount(), histogram.getMean()));
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            double p = PERCENTILES[i];
+            out.append(" p").append(p == Math.rint(p) ? String.valueOf((long) p) : String.valueOf(p))
+                    .append('=').append(values[i]);
+        }
+        out.append(" max=").append(histogram.getMax()).append(' ').append(unit).append('\n');
+    }
+}
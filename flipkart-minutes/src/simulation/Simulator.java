@@ -0,0 +1,280 @@
+package src.simulation;
+
+import src.enums.LifecycleEventType;
+import src.enums.SimulationMode;
+import src.events.LifecycleEventBus;
+import src.metrics.LatencyHistogram;
+import src.models.Customer;
+import src.models.DeliveryPartner;
+import src.models.GeoLocation;
+import src.models.Order;
+import src.service.CustomerService;
+import src.service.MatchingEngine;
+import src.service.OrderService;
+import src.service.PartnerService;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Drives the real services with generated load: Poisson order arrivals, partners who pick up and
+// deliver after sampled delays, customers who sometimes cancel. One thread walks an agenda of
+// timed events; assignments come back from the services' own workers through the event bus.
+//
+// WALL_CLOCK waits for each event's due time. VIRTUAL_TIME jumps the clock to the next event and,
+// whenever a match is possible, lets the assignment workers settle before moving on, so an hour
+// of festival load runs in seconds. Assignment times are stamped when the simulator observes them,
+// so they are exact to within the gap between two events.
+// Durations inside the services (their own metrics, the auto-cancel wheel) stay on real time.
+public class Simulator {
+
+    // Bengaluru, ~30 km box
+    private static final double MIN_LAT = 12.83;
+    private static final double MAX_LAT = 13.10;
+    private static final double MIN_LON = 77.45;
+    private static final double MAX_LON = 77.75;
+
+    private static final long SETTLE_POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+    private static final long SETTLE_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private enum EventType { ARRIVAL, PICKUP, DELIVERY, CANCEL, TICK }
+
+    private static final class Event {
+        final long time;
+        final long sequence;
+        final EventType type;
+        final long orderId;
+        final long partnerId;
+
+        Event(long time, long sequence, EventType type, long orderId, long partnerId) {
+            this.time = time;
+            this.sequence = sequence;
+            this.type = type;
+            this.orderId = orderId;
+            this.partnerId = partnerId;
+        }
+    }
+
+    private final CustomerService customerService;
+    private final OrderService orderService;
+    private final PartnerService partnerService;
+    private final MatchingEngine matchingEngine;
+    private final LifecycleEventBus events;
+    private final SimulationConfig config;
+
+    // Simulator thread only
+    private final PriorityQueue<Event> agenda = new PriorityQueue<>((a, b) ->
+            a.time != b.time ? Long.compare(a.time, b.time) : Long.compare(a.sequence, b.sequence));
+    private final Map<Long, Long> createdAt = new HashMap<>();
+    private final Map<Long, Long> assignedAt = new HashMap<>();
+    private final SplittableRandom random;
+    private long nextSequence;
+    private long now;
+    private long wallStartNanos;
+    private long[] customerIds;
+
+    // {orderId, partnerId}, filled by the bus consumer
+    private final BlockingQueue<long[]> assignments = new LinkedBlockingQueue<>();
+
+    private final LatencyHistogram timeToAssign = new LatencyHistogram();
+    private final LatencyHistogram timeToPickup = new LatencyHistogram();
+    private final LatencyHistogram createdToDelivered = new LatencyHistogram();
+    private final LatencyHistogram queueDepth = new LatencyHistogram();
+    private long created;
+    private long assigned;
+    private long pickedUp;
+    private long delivered;
+    private long cancelled;
+    private long cancelRejected;
+
+    public Simulator(CustomerService customerService,
+                     OrderService orderService,
+                     PartnerService partnerService,
+                     MatchingEngine matchingEngine,
+                     LifecycleEventBus events,
+                     SimulationConfig config) {
+        this.customerService = customerService;
+        this.orderService = orderService;
+        this.partnerService = partnerService;
+        this.matchingEngine = matchingEngine;
+        this.events = events;
+        this.config = config;
+        this.random = new SplittableRandom(config.getSeed());
+    }
+
+    public SimulationReport run() throws InterruptedException {
+        populate();
+        LifecycleEventBus.Subscription subscription = events.subscribe("simulator", event -> {
+            if (event.getType() == LifecycleEventType.ORDER_ASSIGNED) {
+                assignments.add(new long[]{event.getOrderId(), event.getPartnerId()});
+            }
+        });
+
+        long end = config.getDuration().toMillis();
+        long tick = Math.max(1, config.getTick().toMillis());
+        now = 0;
+        schedule(nextArrivalGap(), EventType.ARRIVAL, 0, 0);
+        schedule(tick, EventType.TICK, 0, 0);
+
+        wallStartNanos = System.nanoTime();
+        try {
+            while (true) {
+                Event next = agenda.peek();
+                if (next == null || next.time > end) {
+                    break;
+                }
+                if (config.getMode() == SimulationMode.WALL_CLOCK && !waitUntil(next.time)) {
+                    continue; // an assignment scheduled something sooner
+                }
+                agenda.poll();
+                now = next.time;
+                handle(next, tick);
+                drainAssignments();
+                if (config.getMode() == SimulationMode.VIRTUAL_TIME) {
+                    settle(subscription);
+                }
+            }
+        } finally {
+            subscription.close();
+        }
+
+        return new SimulationReport(config.getMode(), end, System.nanoTime() - wallStartNanos,
+                created, assigned, pickedUp, delivered, cancelled, cancelRejected,
+                matchingEngine.getParkedOrderCount(),
+                timeToAssign, timeToPickup, createdToDelivered, queueDepth);
+    }
+
+    private void populate() {
+        customerIds = new long[config.getCustomers()];
+        for (int i = 0; i < customerIds.length; i++) {
+            Customer customer = customerService.onboardCustomer("sim-customer-" + i);
+            customerIds[i] = customer.getCustomerId();
+        }
+        for (int i = 0; i < config.getPartners(); i++) {
+            DeliveryPartner partner = partnerService.onboardPartner("sim-partner-" + i);
+            partnerService.updatePartnerLocation(partner.getPartnerId(), randomLocation());
+        }
+    }
+
+    private void handle(Event event, long tick) {
+        switch (event.type) {
+            case ARRIVAL: {
+                long customerId = customerIds[random.nextInt(customerIds.length)];
+                Order order = orderService.createOrder(customerId, "item", randomLocation(), randomLocation());
+                created++;
+                createdAt.put(order.getOrderId(), now);
+                if (random.nextDouble() < config.getCancelProbability()) {
+                    schedule(now + config.getCancelAfter().sampleMillis(random), EventType.CANCEL, order.getOrderId(), 0);
+                }
+                schedule(now + nextArrivalGap(), EventType.ARRIVAL, 0, 0);
+                break;
+            }
+            case CANCEL:
+                if (!createdAt.containsKey(event.orderId)) {
+                    break; // already delivered
+                }
+                if (orderService.cancelOrder(event.orderId)) {
+                    cancelled++;
+                    createdAt.remove(event.orderId);
+                    assignedAt.remove(event.orderId);
+                } else {
+                    cancelRejected++; // already picked up
+                }
+                break;
+            case PICKUP:
+                // Fails harmlessly if the order was cancelled while the partner was on the way
+                if (partnerService.pickUpOrder(event.partnerId, event.orderId)) {
+                    pickedUp++;
+                    Long assignedTime = assignedAt.remove(event.orderId);
+                    if (assignedTime != null) {
+                        timeToPickup.record(now - assignedTime);
+                    }
+                    schedule(now + config.getDeliveryTime().sampleMillis(random),
+                            EventType.DELIVERY, event.orderId, event.partnerId);
+                }
+                break;
+            case DELIVERY:
+                if (partnerService.completeOrder(event.partnerId, event.orderId, 1 + random.nextInt(5))) {
+                    delivered++;
+                    Long createdTime = createdAt.remove(event.orderId);
+                    if (createdTime != null) {
+                        createdToDelivered.record(now - createdTime);
+                    }
+                }
+                break;
+            case TICK:
+                queueDepth.record(matchingEngine.getParkedOrderCount());
+                schedule(now + tick, EventType.TICK, 0, 0);
+                break;
+        }
+    }
+
+    private void onAssigned(long orderId, long partnerId) {
+        Long createdTime = createdAt.get(orderId);
+        if (createdTime == null) {
+            return; // cancelled meanwhile, or not one of ours
+        }
+        assigned++;
+        timeToAssign.record(now - createdTime);
+        assignedAt.put(orderId, now);
+        schedule(now + config.getPickupTime().sampleMillis(random), EventType.PICKUP, orderId, partnerId);
+    }
+
+    private void drainAssignments() {
+        long[] assignment;
+        while ((assignment = assignments.poll()) != null) {
+            onAssigned(assignment[0], assignment[1]);
+        }
+    }
+
+    // Virtual time: don't advance while the workers could still be matching at the current instant
+    private void settle(LifecycleEventBus.Subscription subscription) throws InterruptedException {
+        long deadline = System.nanoTime() + SETTLE_TIMEOUT_NANOS;
+        while (matchingEngine.getParkedOrderCount() > 0 && matchingEngine.getAvailablePartnerCount() > 0
+                && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(SETTLE_POLL_NANOS);
+        }
+        subscription.awaitCaughtUp(1, TimeUnit.SECONDS);
+        drainAssignments();
+    }
+
+    // Wall clock: sleep until the event is due, handling assignments as they arrive.
+    // False if an assignment came in first (the agenda may now have an earlier event).
+    private boolean waitUntil(long simTime) throws InterruptedException {
+        long remaining = wallStartNanos + TimeUnit.MILLISECONDS.toNanos(simTime) - System.nanoTime();
+        if (remaining <= 0) {
+            return true;
+        }
+        long[] assignment = assignments.poll(remaining, TimeUnit.NANOSECONDS);
+        if (assignment == null) {
+            return true;
+        }
+        now = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - wallStartNanos);
+        onAssigned(assignment[0], assignment[1]);
+        drainAssignments();
+        return false;
+    }
+
+    // Exponential inter-arrival gap at the current rate; an idle period is re-checked every tick
+    private long nextArrivalGap() {
+        double perSecond = config.getArrivalRate(now);
+        if (perSecond <= 0) {
+            return Math.max(1, config.getTick().toMillis());
+        }
+        return (long) (-1000.0 / perSecond * Math.log(1.0 - random.nextDouble()));
+    }
+
+    private void schedule(long time, EventType type, long orderId, long partnerId) {
+        agenda.add(new Event(time, nextSequence++, type, orderId, partnerId));
+    }
+
+    private GeoLocation randomLocation() {
+        return new GeoLocation(MIN_LAT + random.nextDouble() * (MAX_LAT - MIN_LAT),
+                MIN_LON + random.nextDouble() * (MAX_LON - MIN_LON));
+    }
+}
@@ -0,0 +1,90 @@
+package src.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// High/low ID allocation: the counter file holds the top of the reserved range, ids inside the
+// range come from an AtomicLong with no I/O. A crash skips the unused tail of the block but never
+// hands out an id twice, because an id is only returned once its block is durably reserved.
+public class BlockIdAllocator {
+
+    public static final int DEFAULT_BLOCK_SIZE = 10_000;
+
+    private final String counterFile;
+    private final int blockSize;
+
+    private final AtomicLong lastIssued;
+    private volatile long reservedUpTo;
+    // Held across the durable counter write, so a lock rather than a monitor (no virtual-thread pinning)
+    private final ReentrantLock reserveLock = new ReentrantLock();
+
+    public BlockIdAllocator(String counterFile, long defaultValue) {
+        this(counterFile, defaultValue, DEFAULT_BLOCK_SIZE);
+    }
+
+    public BlockIdAllocator(String counterFile, long defaultValue, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        this.counterFile = counterFile;
+        this.blockSize = blockSize;
+
+        long highWater = FileUtil.loadCounter(counterFile, defaultValue);
+        this.lastIssued = new AtomicLong(highWater);
+        this.reservedUpTo = highWater;
+    }
+
+    public long nextId() {
+        long id = lastIssued.incrementAndGet();
+        if (id > reservedUpTo) {
+            reserveThrough(id);
+        }
+        return id;
+    }
+
+    // Hand out count consecutive ids in one step; returns the first
+    public long nextIds(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Count must be positive: " + count);
+        }
+        long last = lastIssued.addAndGet(count);
+        if (last > reservedUpTo) {
+            reserveThrough(last);
+        }
+        return last - count + 1;
+    }
+
+    public long getLastIssued() {
+        return lastIssued.get();
+    }
+
+    // Shrink the reservation back to the last issued id so a clean restart continues without a gap.
+    // Only call once no more ids will be requested (e.g. on shutdown).
+    public void releaseUnused() {
+        reserveLock.lock();
+        try {
+            long last = lastIssued.get();
+            if (last < reservedUpTo) {
+                FileUtil.saveCounterDurably(counterFile, last);
+                reservedUpTo = last;
+            }
+        } finally {
+            reserveLock.unlock();
+        }
+    }
+
+    private void reserveThrough(long id) {
+        reserveLock.lock();
+        try {
+            if (id <= reservedUpTo) {
+                return;
+            }
+            long blocks = (id - reservedUpTo + blockSize - 1) / blockSize;
+            long newHighWater = reservedUpTo + blocks * blockSize;
+            FileUtil.saveCounterDurably(counterFile, newHighWater);
+            reservedUpTo = newHighWater;
+        } finally {
+            reserveLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,425 @@
+package src.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// long -> V hash map with open addressing (linear probing) over primitive key arrays: no boxed
+// keys, no entry objects, and get() allocates nothing and takes no lock. Keys are split across
+// segments; writers lock one segment. Removal leaves a tombstone so concurrent probes stay
+// valid; tombstones are purged when the segment is rehashed.
+// Reads (forEach, iterators, streams, pages) walk the live tables in place: weakly consistent,
+// like ConcurrentHashMap, and they allocate nothing proportional to the map.
+public class ConcurrentLongMap<V> {
+
+    // Position before the first entry, for page(). Never a key: Long.MIN_VALUE is reserved.
+    public static final long FIRST = Long.MIN_VALUE;
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final Object TOMBSTONE = new Object();
+    private static final int DEFAULT_SEGMENTS = 64;
+    private static final int MIN_CAPACITY = 16;
+
+    private static final class Table {
+        final AtomicLongArray keys;
+        final AtomicReferenceArray<Object> values;
+        final int mask;
+
+        Table(int capacity) {
+            keys = new AtomicLongArray(capacity);
+            values = new AtomicReferenceArray<>(capacity);
+            mask = capacity - 1;
+            for (int i = 0; i < capacity; i++) {
+                keys.set(i, EMPTY);
+            }
+        }
+    }
+
+    private static final class Segment {
+        final ReentrantLock lock = new ReentrantLock();
+        volatile Table table = new Table(MIN_CAPACITY);
+        volatile int size;
+        int used; // live + tombstones, guarded by lock
+    }
+
+    private final Segment[] segments;
+    private final int segmentShift;
+
+    public ConcurrentLongMap() {
+        this(DEFAULT_SEGMENTS);
+    }
+
+    public ConcurrentLongMap(int segmentCount) {
+        int count = Integer.highestOneBit(Math.max(1, segmentCount - 1)) << 1;
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment();
+        }
+        this.segmentShift = 64 - Integer.numberOfTrailingZeros(count);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        long hash = hash(key);
+        Table table = segmentFor(hash).table;
+        for (int i = (int) hash & table.mask; ; i = (i + 1) & table.mask) {
+            long k = table.keys.get(i);
+            if (k == EMPTY) {
+                return null;
+            }
+            if (k == key) {
+                Object value = table.values.get(i);
+                return value == TOMBSTONE ? null : (V) value;
+            }
+        }
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    // Returns the previous value, or null
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Reserved key: " + key);
+        }
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        long hash = hash(key);
+        Segment segment = segmentFor(hash);
+        segment.lock.lock();
+        try {
+            Table table = segment.table;
+            int i = (int) hash & table.mask;
+            for (; ; i = (i + 1) & table.mask) {
+                long k = table.keys.get(i);
+                if (k == key) {
+                    Object previous = table.values.getAndSet(i, value);
+                    if (previous == TOMBSTONE) {
+                        segment.size++;
+                        return null;
+                    }
+                    return (V) previous;
+                }
+                if (k == EMPTY) {
+                    break;
+                }
+            }
+            // Value before key: a reader that sees the key always sees a value
+            table.values.set(i, value);
+            table.keys.set(i, key);
+            segment.size++;
+            if (++segment.used > (table.mask + 1) * 3 / 4) {
+                rehash(segment);
+            }
+            return null;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        long hash = hash(key);
+        Segment segment = segmentFor(hash);
+        segment.lock.lock();
+        try {
+            Table table = segment.table;
+            for (int i = (int) hash & table.mask; ; i = (i + 1) & table.mask) {
+                long k = table.keys.get(i);
+                if (k == EMPTY) {
+                    return null;
+                }
+                if (k == key) {
+                    Object previous = table.values.get(i);
+                    if (previous == TOMBSTONE) {
+                        return null;
+                    }
+                    table.values.set(i, TOMBSTONE);
+                    segment.size--;
+                    return (V) previous;
+                }
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public int size() {
+        int total = 0;
+        for (Segment segment : segments) {
+            total += segment.size;
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // Weakly consistent, like ConcurrentHashMap iteration
+    @SuppressWarnings("unchecked")
+    public void forEach(LongEntryConsumer<V> action) {
+        for (Segment segment : segments) {
+            Table table = segment.table;
+            for (int i = 0; i <= table.mask; i++) {
+                long k = table.keys.get(i);
+                if (k != EMPTY) {
+                    Object value = table.values.get(i);
+                    if (value != TOMBSTONE) {
+                        action.accept(k, (V) value);
+                    }
+                }
+            }
+        }
+    }
+
+    public void forEachValue(Consumer<V> action) {
+        forEach((key, value) -> action.accept(value));
+    }
+
+    // Stops at the first entry the action returns false for; false if it stopped early
+    @SuppressWarnings("unchecked")
+    public boolean forEachWhile(LongEntryPredicate<V> action) {
+        for (Segment segment : segments) {
+            Table table = segment.table;
+            for (int i = 0; i <= table.mask; i++) {
+                long k = table.keys.get(i);
+                if (k != EMPTY) {
+                    Object value = table.values.get(i);
+                    if (value != TOMBSTONE && !action.test(k, (V) value)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    // Weakly consistent; remove() is not supported
+    public Iterator<V> valueIterator() {
+        return new ValueIterator();
+    }
+
+    public Stream<V> valueStream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(valueIterator(),
+                Spliterator.CONCURRENT | Spliterator.NONNULL), false);
+    }
+
+    // Up to limit entries that come after afterKey (or FIRST) in the map's scan order, in that
+    // order; returns how many were visited. The order is by key hash, so it does not depend on
+    // table layout: paging with the last visited key as the next afterKey sees every entry present
+    // for the whole walk exactly once, even across rehashes. Entries added or removed meanwhile
+    // may or may not appear. Fewer than limit means the walk is done. Scans one segment per page
+    // (more if it runs out) and allocates only limit-sized buffers.
+    @SuppressWarnings("unchecked")
+    public int page(long afterKey, int limit, LongEntryConsumer<V> action) {
+        if (limit <= 0) {
+            return 0;
+        }
+        boolean fromStart = afterKey == FIRST;
+        long afterHash = fromStart ? 0 : hash(afterKey);
+        int firstSegment = fromStart ? 0 : (int) (afterHash >>> segmentShift);
+        long[] hashes = new long[limit];
+        long[] keys = new long[limit];
+        Object[] values = new Object[limit];
+        int visited = 0;
+        for (int s = firstSegment; s < segments.length && visited < limit; s++) {
+            // Hashes in later segments are all higher, so the bound only applies to the first one
+            boolean bounded = !fromStart && s == firstSegment;
+            int n = smallestAfter(segments[s].table, bounded, afterHash, limit - visited, hashes, keys, values);
+            for (int i = 0; i < n; i++) {
+                action.accept(keys[i], (V) values[i]);
+            }
+            visited += n;
+        }
+        return visited;
+    }
+
+    public List<V> values() {
+        List<V> result = new ArrayList<>(size());
+        forEachValue(result::add);
+        return result;
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.table = new Table(MIN_CAPACITY);
+                segment.size = 0;
+                segment.used = 0;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    public interface LongEntryConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    public interface LongEntryPredicate<V> {
+        boolean test(long key, V value);
+    }
+
+    private final class ValueIterator implements Iterator<V> {
+        private int segment;
+        private Table table = segments[0].table;
+        private int slot;
+        private Object next;
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (slot > table.mask) {
+                    if (++segment == segments.length) {
+                        return false;
+                    }
+                    table = segments[segment].table;
+                    slot = 0;
+                    continue;
+                }
+                int i = slot++;
+                if (table.keys.get(i) != EMPTY) {
+                    Object value = table.values.get(i);
+                    if (value != TOMBSTONE) {
+                        next = value;
+                    }
+                }
+            }
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object value = next;
+            next = null;
+            return (V) value;
+        }
+    }
+
+    // Fills the first n slots with the n smallest hashes in the table (above afterHash if bounded),
+    // ascending, via a bounded max-heap; returns n
+    private static int smallestAfter(Table table, boolean bounded, long afterHash, int limit,
+                                     long[] hashes, long[] keys, Object[] values) {
+        int size = 0;
+        for (int i = 0; i <= table.mask; i++) {
+            long k = table.keys.get(i);
+            if (k == EMPTY) {
+                continue;
+            }
+            Object value = table.values.get(i);
+            long h = hash(k);
+            if (value == TOMBSTONE || (bounded && Long.compareUnsigned(h, afterHash) <= 0)) {
+                continue;
+            }
+            if (size < limit) {
+                hashes[size] = h;
+                keys[size] = k;
+                values[size] = value;
+                siftUp(hashes, keys, values, size++);
+            } else if (Long.compareUnsigned(h, hashes[0]) < 0) {
+                hashes[0] = h;
+                keys[0] = k;
+                values[0] = value;
+                siftDown(hashes, keys, values, 0, size);
+            }
+        }
+        // Heap sort in place: repeatedly move the largest to the end
+        for (int end = size - 1; end > 0; end--) {
+            swap(hashes, keys, values, 0, end);
+            siftDown(hashes, keys, values, 0, end);
+        }
+        return size;
+    }
+
+    private static void siftUp(long[] hashes, long[] keys, Object[] values, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (Long.compareUnsigned(hashes[i], hashes[parent]) <= 0) {
+                return;
+            }
+            swap(hashes, keys, values, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(long[] hashes, long[] keys, Object[] values, int i, int size) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && Long.compareUnsigned(hashes[child + 1], hashes[child]) > 0) {
+                child++;
+            }
+            if (Long.compareUnsigned(hashes[child], hashes[i]) <= 0) {
+                return;
+            }
+            swap(hashes, keys, values, i, child);
+            i = child;
+        }
+    }
+
+    private static void swap(long[] hashes, long[] keys, Object[] values, int a, int b) {
+        long h = hashes[a];
+        hashes[a] = hashes[b];
+        hashes[b] = h;
+        long k = keys[a];
+        keys[a] = keys[b];
+        keys[b] = k;
+        Object v = values[a];
+        values[a] = values[b];
+        values[b] = v;
+    }
+
+    // Caller holds the segment lock. Grows if mostly live, otherwise just drops tombstones.
+    private void rehash(Segment segment) {
+        Table old = segment.table;
+        int capacity = old.mask + 1;
+        if (segment.size > capacity / 2) {
+            capacity <<= 1;
+        }
+        Table table = new Table(capacity);
+        for (int i = 0; i <= old.mask; i++) {
+            long k = old.keys.get(i);
+            Object value = old.values.get(i);
+            if (k != EMPTY && value != TOMBSTONE) {
+                int j = (int) hash(k) & table.mask;
+                while (table.keys.get(j) != EMPTY) {
+                    j = (j + 1) & table.mask;
+                }
+                table.values.set(j, value);
+                table.keys.set(j, k);
+            }
+        }
+        segment.used = segment.size;
+        segment.table = table;
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[(int) (hash >>> segmentShift)];
+    }
+
+    // Fibonacci mix so sequential ids spread over segments and slots
+    private static long hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+}
@@ -0,0 +1,81 @@
+package src.util;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Striped locks for order and partner state transitions. Unrelated orders/partners hash to
+// different stripes and proceed in parallel. A transition that touches both always takes the
+// order stripe before the partner stripe - that single ordering rules out deadlock.
+public class EntityLockManager {
+
+    public static final int DEFAULT_STRIPES = 1024;
+
+    private final ReentrantLock[] orderLocks;
+    private final ReentrantLock[] partnerLocks;
+    private final int mask;
+
+    public EntityLockManager() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public EntityLockManager(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.mask = size - 1;
+        this.orderLocks = new ReentrantLock[size];
+        this.partnerLocks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            orderLocks[i] = new ReentrantLock();
+            partnerLocks[i] = new ReentrantLock();
+        }
+    }
+
+    public ReentrantLock orderLock(long orderId) {
+        return orderLocks[stripe(orderId)];
+    }
+
+    public ReentrantLock partnerLock(long partnerId) {
+        return partnerLocks[stripe(partnerId)];
+    }
+
+    public <R> R withOrder(long orderId, Supplier<R> action) {
+        ReentrantLock lock = orderLock(orderId);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public <R> R withPartner(long partnerId, Supplier<R> action) {
+        ReentrantLock lock = partnerLock(partnerId);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Atomic transition over one order and one partner
+    public <R> R withOrderAndPartner(long orderId, long partnerId, Supplier<R> action) {
+        ReentrantLock order = orderLock(orderId);
+        ReentrantLock partner = partnerLock(partnerId);
+        order.lock();
+        try {
+            partner.lock();
+            try {
+                return action.get();
+            } finally {
+                partner.unlock();
+            }
+        } finally {
+            order.unlock();
+        }
+    }
+
+    private int stripe(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,124 @@
+package src.util;
+
+import src.enums.ExecutionMode;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Thread creation for the configurable execution mode. Virtual threads (Java 21) are looked up
+// reflectively, so the tree still builds and runs on Java 17; there VIRTUAL falls back to
+// platform threads with a warning.
+public final class ExecutionThreads {
+
+    public static final String MODE_PROPERTY = "flipkart.threads";
+
+    private static final Method OF_VIRTUAL = lookup(Thread.class, "ofVirtual");
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR =
+            lookup(Executors.class, "newThreadPerTaskExecutor", ThreadFactory.class);
+
+    private static volatile boolean fallbackReported;
+
+    private ExecutionThreads() {
+    }
+
+    // -Dflipkart.threads=virtual|platform, PLATFORM when unset
+    public static ExecutionMode fromSystemProperty() {
+        String value = System.getProperty(MODE_PROPERTY);
+        if (value == null || value.isBlank()) {
+            return ExecutionMode.PLATFORM;
+        }
+        try {
+            return ExecutionMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Warning: unknown " + MODE_PROPERTY + "=" + value + ", using platform threads");
+            return ExecutionMode.PLATFORM;
+        }
+    }
+
+    public static boolean virtualThreadsAvailable() {
+        return virtualFactory("probe-") != null;
+    }
+
+    // The mode that will actually be used
+    public static ExecutionMode effective(ExecutionMode requested) {
+        if (requested == ExecutionMode.VIRTUAL && !virtualThreadsAvailable()) {
+            reportFallback();
+            return ExecutionMode.PLATFORM;
+        }
+        return requested;
+    }
+
+    // Threads named prefix0, prefix1, ...; virtual threads are always daemon
+    public static ThreadFactory factory(ExecutionMode mode, String namePrefix, boolean daemon) {
+        if (mode == ExecutionMode.VIRTUAL) {
+            ThreadFactory virtual = virtualFactory(namePrefix);
+            if (virtual != null) {
+                return virtual;
+            }
+            reportFallback();
+        }
+        AtomicInteger next = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, namePrefix + next.getAndIncrement());
+            t.setDaemon(daemon);
+            return t;
+        };
+    }
+
+    public static Thread start(ExecutionMode mode, String name, boolean daemon, Runnable task) {
+        Thread t = factory(mode, name, daemon).newThread(task);
+        t.setName(name);
+        t.start();
+        return t;
+    }
+
+    // One thread per submitted task (e.g. one simulated client per partner) - no pool to size.
+    // Platform mode uses a cached pool, which also grows to one thread per concurrent task.
+    public static ExecutorService newPerTaskExecutor(ExecutionMode mode, String namePrefix) {
+        ThreadFactory factory = factory(mode, namePrefix, true);
+        if (mode == ExecutionMode.VIRTUAL && NEW_THREAD_PER_TASK_EXECUTOR != null && virtualThreadsAvailable()) {
+            try {
+                return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, factory);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                reportFallback();
+            }
+        }
+        return Executors.newCachedThreadPool(factory);
+    }
+
+    // Null when the runtime has no (or only preview) virtual threads
+    private static ThreadFactory virtualFactory(String namePrefix) {
+        if (OF_VIRTUAL == null) {
+            return null;
+        }
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            Class<?> builderType = OF_VIRTUAL.getReturnType();
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void reportFallback() {
+        if (!fallbackReported) {
+            fallbackReported = true;
+            System.err.println("Warning: virtual threads need Java 21 (running "
+                    + System.getProperty("java.version") + "), using platform threads");
+        }
+    }
+
+    private static Method lookup(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
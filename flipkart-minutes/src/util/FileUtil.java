@@ -1,6 +1,8 @@
 package src.util;
 
 import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.*;
 
 // SOLID: Single Responsibility - Only file utility operations
@@ -37,6 +39,31 @@ public class FileUtil {
         }
     }
 
+    // Save counter so it survives a crash: temp file + fsync + atomic rename
+    public static void saveCounterDurably(String filename, long value) {
+        Path metadataPath = Paths.get(METADATA_DIR);
+        Path filePath = metadataPath.resolve(filename);
+        Path tempPath = metadataPath.resolve(filename + ".tmp");
+        try {
+            Files.createDirectories(metadataPath);
+            try (FileOutputStream out = new FileOutputStream(tempPath.toFile())) {
+                out.write(String.valueOf(value).getBytes(java.nio.charset.StandardCharsets.UTF_8));
+                out.getFD().sync();
+            }
+            Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory(metadataPath);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to save counter to " + filename, e);
+        }
+    }
+
+    // A rename is only durable once the directory entry is: fsync the directory after moving into it
+    public static void syncDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
     // Ensure directory exists
     public static void ensureDirectoryExists(String directoryPath) {
         try {
@@ -115,4 +142,11 @@ public class FileUtil {
         Files.copy(Paths.get(sourcePath), Paths.get(destinationPath),
                 StandardCopyOption.REPLACE_EXISTING);
     }
-}
\ No newline at end of file
+
+    // Read-only mapping of a whole file; the mapping stays valid after the channel is closed
+    public static MappedByteBuffer mapReadOnly(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+}
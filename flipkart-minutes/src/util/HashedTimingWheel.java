@@ -0,0 +1,268 @@
+package src.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Hierarchical hashed timing wheel (Varghese & Lauck). Each level has 2^wheelBits slots and a slot
+// on level L spans 2^(wheelBits*L) ticks; a timeout sits on the lowest level whose current rotation
+// contains its deadline and cascades down as that rotation comes round. Slots are intrusive
+// doubly-linked lists, so schedule and cancel are O(1) with one node per timeout and no heap.
+public class HashedTimingWheel implements AutoCloseable {
+
+    public static final int DEFAULT_WHEEL_BITS = 8;
+    public static final int DEFAULT_LEVELS = 4;
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    public static final class Timeout {
+        private final HashedTimingWheel wheel;
+        private final Runnable task;
+        private final long deadlineTick;
+
+        // Guarded by wheel.lock
+        private Timeout prev;
+        private Timeout next;
+        private int slot = -1;
+        private volatile int state = PENDING;
+
+        private Timeout(HashedTimingWheel wheel, Runnable task, long deadlineTick) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        // O(1) unlink; false if the timeout already fired or was cancelled
+        public boolean cancel() {
+            return wheel.cancel(this);
+        }
+
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+    }
+
+    private final String name;
+    private final long tickNanos;
+    private final int wheelBits;
+    private final int levels;
+    private final int mask;
+    private final long maxTicks;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Timeout[] slots;
+    private long currentTick;
+    private int pending;
+
+    private final long startNanos;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public HashedTimingWheel(String name, long tickDuration, TimeUnit unit) {
+        this(name, tickDuration, unit, DEFAULT_WHEEL_BITS, DEFAULT_LEVELS);
+    }
+
+    public HashedTimingWheel(String name, long tickDuration, TimeUnit unit, int wheelBits, int levels) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be positive: " + tickDuration);
+        }
+        if (wheelBits < 1 || levels < 1 || wheelBits * levels > 62) {
+            throw new IllegalArgumentException("Unsupported wheel shape: " + wheelBits + " bits x " + levels + " levels");
+        }
+        this.name = name;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.wheelBits = wheelBits;
+        this.levels = levels;
+        this.mask = (1 << wheelBits) - 1;
+        this.maxTicks = 1L << (wheelBits * levels);
+        this.slots = new Timeout[levels << wheelBits];
+
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    // Runs task on the wheel thread after at least `delay`; keep tasks short or hand them off
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        // Deadline from the clock, not currentTick, which can trail real time by up to a tick
+        long deadlineNanos = System.nanoTime() - startNanos + Math.max(0, unit.toNanos(delay));
+        long deadlineTick = (deadlineNanos + tickNanos - 1) / tickNanos;
+        lock.lock();
+        try {
+            if (!running) {
+                throw new IllegalStateException("Timing wheel " + name + " is closed");
+            }
+            deadlineTick = Math.max(deadlineTick, currentTick + 1);
+            if (deadlineTick - currentTick >= maxTicks) {
+                throw new IllegalArgumentException("Delay exceeds wheel range of " + maxTicks + " ticks");
+            }
+            Timeout timeout = new Timeout(this, task, deadlineTick);
+            place(timeout);
+            pending++;
+            return timeout;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getPendingCount() {
+        lock.lock();
+        try {
+            return pending;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    // Stops the wheel thread; timeouts still pending never fire
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            running = false;
+        } finally {
+            lock.unlock();
+        }
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean cancel(Timeout timeout) {
+        lock.lock();
+        try {
+            if (timeout.state != PENDING) {
+                return false;
+            }
+            unlink(timeout);
+            timeout.state = CANCELLED;
+            pending--;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void run() {
+        List<Timeout> expired = new ArrayList<>();
+        while (running) {
+            long elapsedTicks = (System.nanoTime() - startNanos) / tickNanos;
+            lock.lock();
+            try {
+                while (currentTick < elapsedTicks) {
+                    advance(expired);
+                }
+            } finally {
+                lock.unlock();
+            }
+            for (Timeout timeout : expired) {
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException e) {
+                    System.err.println("Error: timer task failed on " + name + ": " + e.getMessage());
+                }
+            }
+            expired.clear();
+
+            long sleepNanos = startNanos + (elapsedTicks + 1) * tickNanos - System.nanoTime();
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    // Caller holds the lock. Move one tick: cascade the higher levels whose slot boundary we crossed,
+    // top-down so an entry can fall through several levels, then collect the level-0 slot.
+    private void advance(List<Timeout> expired) {
+        long tick = ++currentTick;
+        int top = 0;
+        while (top + 1 < levels && (tick & ((1L << (wheelBits * (top + 1))) - 1)) == 0) {
+            top++;
+        }
+        for (int level = top; level >= 1; level--) {
+            int index = (level << wheelBits) + (int) ((tick >>> (wheelBits * level)) & mask);
+            Timeout timeout = detachAll(index);
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                timeout.next = null;
+                place(timeout);
+                timeout = next;
+            }
+        }
+
+        Timeout timeout = detachAll((int) (tick & mask));
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.next = null;
+            timeout.state = EXPIRED;
+            pending--;
+            expired.add(timeout);
+            timeout = next;
+        }
+    }
+
+    // Caller holds the lock. Lowest level whose current rotation also holds the deadline.
+    private void place(Timeout timeout) {
+        long deadline = timeout.deadlineTick;
+        int level = 0;
+        while (level < levels - 1 && (deadline >>> (wheelBits * (level + 1))) != (currentTick >>> (wheelBits * (level + 1)))) {
+            level++;
+        }
+        int index = (level << wheelBits) + (int) ((deadline >>> (wheelBits * level)) & mask);
+        Timeout head = slots[index];
+        timeout.prev = null;
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        slots[index] = timeout;
+        timeout.slot = index;
+    }
+
+    // Caller holds the lock
+    private void unlink(Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            slots[timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.slot = -1;
+    }
+
+    // Caller holds the lock; returns the former list (linked through next)
+    private Timeout detachAll(int index) {
+        Timeout head = slots[index];
+        slots[index] = null;
+        for (Timeout t = head; t != null; t = t.next) {
+            t.prev = null;
+            t.slot = -1;
+        }
+        return head;
+    }
+}
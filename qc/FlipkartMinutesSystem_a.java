@@ -16,10 +16,12 @@ public class FlipkartMinutesSystem_a {
     // Thread pool for auto-assignment
     private final ExecutorService assignmentExecutor = Executors.newSingleThreadExecutor();
 
-    // Thread pool for auto-cancel (bonus feature)
-    private final ScheduledExecutorService autoCancelExecutor = Executors.newScheduledThreadPool(2);
+    // Thread pool for auto-cancel (bonus feature). Cancelled tasks leave the delay queue immediately.
+    private final ScheduledThreadPoolExecutor autoCancelExecutor = new ScheduledThreadPoolExecutor(2);
+    private final Map<Long, ScheduledFuture<?>> autoCancelTasks = new ConcurrentHashMap<>();
 
     public FlipkartMinutesSystem_a() {
+        autoCancelExecutor.setRemoveOnCancelPolicy(true);
         // Start auto-assignment thread
         startAutoAssignment();
     }
@@ -97,6 +99,7 @@ public class FlipkartMinutesSystem_a {
 
         // Remove from pending queue if present
         pendingOrders.remove(orderId);
+        cancelAutoCancel(orderId);
 
         System.out.println("✓ Order cancelled: " + orderId);
         notifyCustomer(order.getCustomerId(), "Order " + orderId + " has been cancelled");
@@ -188,6 +191,7 @@ public class FlipkartMinutesSystem_a {
         // Pick up order
         order.setStatus(OrderStatus.PICKED_UP);
         order.setPickedUpAt(LocalDateTime.now());
+        cancelAutoCancel(orderId);
 
         System.out.println("✓ Order picked up: " + orderId + " by Partner: " + partnerId);
         notifyCustomer(order.getCustomerId(), "Order " + orderId + " picked up by delivery partner");
@@ -268,7 +272,8 @@ public class FlipkartMinutesSystem_a {
 
     // Auto-cancel after 30 minutes
     private void scheduleAutoCancel(long orderId) {
-        autoCancelExecutor.schedule(() -> {
+        ScheduledFuture<?> task = autoCancelExecutor.schedule(() -> {
+            autoCancelTasks.remove(orderId);
             Order order = orders.get(orderId);
             if (order != null && order.getStatus() != OrderStatus.PICKED_UP &&
                     order.getStatus() != OrderStatus.DELIVERED &&
@@ -278,6 +283,15 @@ public class FlipkartMinutesSystem_a {
                 cancelOrder(orderId);
             }
         }, 30, TimeUnit.MINUTES);
+        autoCancelTasks.put(orderId, task);
+    }
+
+    // Order picked up or cancelled - the timeout can no longer apply
+    private void cancelAutoCancel(long orderId) {
+        ScheduledFuture<?> task = autoCancelTasks.remove(orderId);
+        if (task != null) {
+            task.cancel(false);
+        }
     }
 
     // Dashboard - Top partners